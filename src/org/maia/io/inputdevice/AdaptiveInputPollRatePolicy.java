@@ -0,0 +1,106 @@
+package org.maia.io.inputdevice;
+
+/**
+ * Poll rate policy that backs off while the input devices are idle and ramps up to the maximum rate as soon as
+ * activity resumes
+ */
+public class AdaptiveInputPollRatePolicy implements InputPollRatePolicy {
+
+	private float minimumPollsPerSecond; // rate reached after a sustained idle period
+
+	private float maximumPollsPerSecond; // rate during activity
+
+	private long idleThresholdMillis = 2000L; // inactivity before starting to back off
+
+	private float backOffFactor = 0.95f; // rate multiplier per idle poll cycle beyond the threshold
+
+	private float currentPollsPerSecond;
+
+	private long lastActivityTimeNanos;
+
+	public static final float DEFAULT_MINIMUM_POLLS_PER_SECOND = 20f;
+
+	public static final float DEFAULT_MAXIMUM_POLLS_PER_SECOND = 500f;
+
+	public AdaptiveInputPollRatePolicy() {
+		this(DEFAULT_MINIMUM_POLLS_PER_SECOND, DEFAULT_MAXIMUM_POLLS_PER_SECOND);
+	}
+
+	public AdaptiveInputPollRatePolicy(float minimumPollsPerSecond, float maximumPollsPerSecond) {
+		if (minimumPollsPerSecond <= 0f || minimumPollsPerSecond > maximumPollsPerSecond)
+			throw new IllegalArgumentException(
+					"Invalid poll rate range: " + minimumPollsPerSecond + ", " + maximumPollsPerSecond);
+		this.minimumPollsPerSecond = minimumPollsPerSecond;
+		this.maximumPollsPerSecond = maximumPollsPerSecond;
+		this.currentPollsPerSecond = maximumPollsPerSecond;
+		this.lastActivityTimeNanos = System.nanoTime();
+	}
+
+	@Override
+	public void pollCycleCompleted(int eventCount) {
+		long now = System.nanoTime();
+		if (eventCount > 0) {
+			setLastActivityTimeNanos(now);
+			setCurrentPollsPerSecond(getMaximumPollsPerSecond());
+		} else if (now - getLastActivityTimeNanos() > getIdleThresholdMillis() * 1000000L) {
+			setCurrentPollsPerSecond(Math.max(getPollsPerSecond() * getBackOffFactor(), getMinimumPollsPerSecond()));
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("AdaptiveInputPollRatePolicy [minimumPollsPerSecond=");
+		builder.append(getMinimumPollsPerSecond());
+		builder.append(", maximumPollsPerSecond=");
+		builder.append(getMaximumPollsPerSecond());
+		builder.append(", currentPollsPerSecond=");
+		builder.append(getPollsPerSecond());
+		builder.append("]");
+		return builder.toString();
+	}
+
+	@Override
+	public float getPollsPerSecond() {
+		return currentPollsPerSecond;
+	}
+
+	private void setCurrentPollsPerSecond(float pollsPerSecond) {
+		this.currentPollsPerSecond = pollsPerSecond;
+	}
+
+	public float getMinimumPollsPerSecond() {
+		return minimumPollsPerSecond;
+	}
+
+	public float getMaximumPollsPerSecond() {
+		return maximumPollsPerSecond;
+	}
+
+	public long getIdleThresholdMillis() {
+		return idleThresholdMillis;
+	}
+
+	public void setIdleThresholdMillis(long millis) {
+		this.idleThresholdMillis = millis;
+	}
+
+	private long getLastActivityTimeNanos() {
+		return lastActivityTimeNanos;
+	}
+
+	private void setLastActivityTimeNanos(long timeNanos) {
+		this.lastActivityTimeNanos = timeNanos;
+	}
+
+	public float getBackOffFactor() {
+		return backOffFactor;
+	}
+
+	public void setBackOffFactor(float factor) {
+		if (factor <= 0f || factor > 1f)
+			throw new IllegalArgumentException("Back-off factor out of range: " + factor);
+		this.backOffFactor = factor;
+	}
+
+}
\ No newline at end of file
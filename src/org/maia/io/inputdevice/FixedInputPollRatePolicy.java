@@ -0,0 +1,28 @@
+package org.maia.io.inputdevice;
+
+public class FixedInputPollRatePolicy implements InputPollRatePolicy {
+
+	private float pollsPerSecond;
+
+	public FixedInputPollRatePolicy(float pollsPerSecond) {
+		if (pollsPerSecond <= 0f)
+			throw new IllegalArgumentException("Poll rate must be positive: " + pollsPerSecond);
+		this.pollsPerSecond = pollsPerSecond;
+	}
+
+	@Override
+	public void pollCycleCompleted(int eventCount) {
+		// rate is not affected by activity
+	}
+
+	@Override
+	public String toString() {
+		return "FixedInputPollRatePolicy [pollsPerSecond=" + getPollsPerSecond() + "]";
+	}
+
+	@Override
+	public float getPollsPerSecond() {
+		return pollsPerSecond;
+	}
+
+}
\ No newline at end of file
@@ -10,6 +10,8 @@ public abstract class Input {
 
 	private String identifier;
 
+	private int ordinal = -1; // position within the inputs of the device, resolved on demand
+
 	protected Input(InputDevice device, String name, String identifier) {
 		this.device = device;
 		this.name = name;
@@ -17,17 +19,21 @@ public abstract class Input {
 	}
 
 	@Override
-	public int hashCode() {
+	public final int hashCode() {
 		return Objects.hash(getDevice(), getIdentifier());
 	}
 
+	/**
+	 * Tells whether the given object is an input with the same identifier on an equal device, regardless of the event
+	 * source it comes from
+	 * 
+	 * @see InputDevice#equals(Object)
+	 */
 	@Override
-	public boolean equals(Object obj) {
+	public final boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
+		if (!(obj instanceof Input))
 			return false;
 		Input other = (Input) obj;
 		return Objects.equals(getDevice(), other.getDevice()) && Objects.equals(getIdentifier(), other.getIdentifier());
@@ -74,4 +80,16 @@ public abstract class Input {
 		return identifier;
 	}
 
+	/**
+	 * Returns the position of this input within the inputs of its device
+	 * 
+	 * @see InputDevice#getInputs()
+	 */
+	public int getOrdinal() {
+		if (ordinal < 0) {
+			ordinal = getDevice().getInputs().indexOf(this);
+		}
+		return ordinal;
+	}
+
 }
\ No newline at end of file
@@ -17,17 +17,19 @@ public abstract class InputDevice {
 	}
 
 	@Override
-	public int hashCode() {
+	public final int hashCode() {
 		return Objects.hash(getIdentifier());
 	}
 
+	/**
+	 * Tells whether the given object is a device with the same identifier, regardless of the event source it comes
+	 * from. This way a replayed device equals the recorded device it stands for
+	 */
 	@Override
-	public boolean equals(Object obj) {
+	public final boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
+		if (!(obj instanceof InputDevice))
 			return false;
 		InputDevice other = (InputDevice) obj;
 		return Objects.equals(getIdentifier(), other.getIdentifier());
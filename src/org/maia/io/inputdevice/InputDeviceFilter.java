@@ -8,6 +8,11 @@ public interface InputDeviceFilter {
 		public boolean accept(InputDevice device) {
 			return true;
 		}
+
+		@Override
+		public boolean isStable() {
+			return true;
+		}
 	};
 
 	InputDeviceFilter MOUSE = new InputDeviceFilter() {
@@ -16,6 +21,11 @@ public interface InputDeviceFilter {
 		public boolean accept(InputDevice device) {
 			return device.isTypeMouse();
 		}
+
+		@Override
+		public boolean isStable() {
+			return true;
+		}
 	};
 
 	InputDeviceFilter KEYBOARD = new InputDeviceFilter() {
@@ -24,6 +34,11 @@ public interface InputDeviceFilter {
 		public boolean accept(InputDevice device) {
 			return device.isTypeKeyboard();
 		}
+
+		@Override
+		public boolean isStable() {
+			return true;
+		}
 	};
 
 	InputDeviceFilter STICK = new InputDeviceFilter() {
@@ -32,6 +47,11 @@ public interface InputDeviceFilter {
 		public boolean accept(InputDevice device) {
 			return device.isTypeStick();
 		}
+
+		@Override
+		public boolean isStable() {
+			return true;
+		}
 	};
 
 	InputDeviceFilter GAMEPAD = new InputDeviceFilter() {
@@ -40,6 +60,11 @@ public interface InputDeviceFilter {
 		public boolean accept(InputDevice device) {
 			return device.isTypeGamepad();
 		}
+
+		@Override
+		public boolean isStable() {
+			return true;
+		}
 	};
 
 	InputDeviceFilter STICK_OR_GAMEPAD = new InputDeviceFilter() {
@@ -48,8 +73,23 @@ public interface InputDeviceFilter {
 		public boolean accept(InputDevice device) {
 			return device.isTypeStick() || device.isTypeGamepad();
 		}
+
+		@Override
+		public boolean isStable() {
+			return true;
+		}
 	};
 
 	boolean accept(InputDevice device);
 
+	/**
+	 * Tells whether the verdict for a device never changes. Event sources may then evaluate the filter once per device
+	 * and cache the verdict until the filter is replaced or the devices are scanned again
+	 * 
+	 * @return <code>true</code> when the verdicts can be cached, <code>false</code> by default
+	 */
+	default boolean isStable() {
+		return false;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package org.maia.io.inputdevice;
+
+import org.maia.util.GenericListener;
+
+public interface InputDeviceHotplugListener extends GenericListener {
+
+	void inputDeviceAdded(InputDevice device);
+
+	void inputDeviceRemoved(InputDevice device);
+
+}
\ No newline at end of file
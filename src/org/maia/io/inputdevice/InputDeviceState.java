@@ -0,0 +1,115 @@
+package org.maia.io.inputdevice;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current values of all inputs of a device, indexed by input ordinal
+ * <p>
+ * The values are written by a single thread, typically the poller of the event source, and published as a whole by
+ * means of a sequence lock. Any number of threads can read a consistent snapshot without locking and without
+ * subscribing to events.
+ * </p>
+ * 
+ * @see InputEventSource#getInputDeviceState(InputDevice)
+ * @see Input#getOrdinal()
+ */
+public class InputDeviceState {
+
+	private InputDevice device;
+
+	private float[] values;
+
+	private AtomicLong sequence; // odd while an update is in progress
+
+	public InputDeviceState(InputDevice device, int inputCount) {
+		this.device = device;
+		this.values = new float[inputCount];
+		this.sequence = new AtomicLong();
+	}
+
+	/**
+	 * Starts an update of the values. To be invoked by the writer thread only
+	 */
+	public void beginUpdate() {
+		sequence.set(sequence.get() + 1L);
+		VarHandle.storeStoreFence();
+	}
+
+	/**
+	 * Changes a value as part of an update. To be invoked by the writer thread only
+	 * 
+	 * @see #beginUpdate()
+	 */
+	public void setValue(int ordinal, float value) {
+		values[ordinal] = value;
+	}
+
+	/**
+	 * Publishes the values set since {@link #beginUpdate()}. To be invoked by the writer thread only
+	 */
+	public void endUpdate() {
+		sequence.set(sequence.get() + 1L);
+	}
+
+	/**
+	 * Copies a consistent snapshot of all values
+	 * 
+	 * @param target
+	 *            The array receiving the values, indexed by input ordinal. Its length should be at least
+	 *            {@link #getInputCount()}
+	 * @return The number of updates reflected in the snapshot
+	 */
+	public long readValues(float[] target) {
+		int n = Math.min(target.length, values.length);
+		while (true) {
+			long before = sequence.get();
+			if ((before & 1L) == 0L) {
+				System.arraycopy(values, 0, target, 0, n);
+				VarHandle.acquireFence();
+				if (sequence.get() == before)
+					return before >>> 1;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Returns the current value of a single input
+	 * 
+	 * @param ordinal
+	 *            The ordinal of the input within the device
+	 */
+	public float getValue(int ordinal) {
+		while (true) {
+			long before = sequence.get();
+			if ((before & 1L) == 0L) {
+				float value = values[ordinal];
+				VarHandle.acquireFence();
+				if (sequence.get() == before)
+					return value;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	public float getValue(Input input) {
+		return getValue(input.getOrdinal());
+	}
+
+	/**
+	 * Returns the number of updates published so far
+	 */
+	public long getUpdateCount() {
+		return sequence.get() >>> 1;
+	}
+
+	public InputDevice getDevice() {
+		return device;
+	}
+
+	public int getInputCount() {
+		return values.length;
+	}
+
+}
\ No newline at end of file
@@ -6,12 +6,34 @@ public class InputEvent {
 
 	private float value;
 
-	private long creationTime;
+	private long creationTime; // wall-clock time in milliseconds
+
+	private long creationTimeNanos; // monotonic time as given by System.nanoTime()
+
+	private long deviceTimeNanos; // time stamp from the device driver, with an arbitrary origin, 0 when not available
+
+	private long sequenceNumber; // monotonically increasing per event source, 0 when not issued by a source
+
+	private long pollCycleId; // poll cycle of the event source, 0 when not issued by a source
 
 	public InputEvent(Input input, float value) {
 		this.input = input;
 		this.value = value;
 		this.creationTime = System.currentTimeMillis();
+		this.creationTimeNanos = System.nanoTime();
+	}
+
+	/**
+	 * Copies all properties of the given event into this event
+	 */
+	protected void assign(InputEvent event) {
+		setInput(event.getInput());
+		setValue(event.getValue());
+		setCreationTime(event.getCreationTime());
+		setCreationTimeNanos(event.getCreationTimeNanos());
+		setDeviceTimeNanos(event.getDeviceTimeNanos());
+		setSequenceNumber(event.getSequenceNumber());
+		setPollCycleId(event.getPollCycleId());
 	}
 
 	@Override
@@ -46,5 +68,44 @@ public class InputEvent {
 	protected void setCreationTime(long time) {
 		this.creationTime = time;
 	}
+
+	public long getCreationTimeNanos() {
+		return creationTimeNanos;
+	}
+
+	protected void setCreationTimeNanos(long timeNanos) {
+		this.creationTimeNanos = timeNanos;
+	}
+
+	/**
+	 * Returns the time at which the device driver registered the change, in nanoseconds. The origin of these time
+	 * stamps differs from that of <code>System.nanoTime()</code>, so they are only comparable among events of the same
+	 * device
+	 * 
+	 * @return The time stamp, or 0 when the event source does not obtain time stamps from the driver
+	 */
+	public long getDeviceTimeNanos() {
+		return deviceTimeNanos;
+	}
+
+	protected void setDeviceTimeNanos(long timeNanos) {
+		this.deviceTimeNanos = timeNanos;
+	}
+
+	public long getSequenceNumber() {
+		return sequenceNumber;
+	}
+
+	protected void setSequenceNumber(long sequenceNumber) {
+		this.sequenceNumber = sequenceNumber;
+	}
+
+	public long getPollCycleId() {
+		return pollCycleId;
+	}
+
+	protected void setPollCycleId(long pollCycleId) {
+		this.pollCycleId = pollCycleId;
+	}
 	
 }
\ No newline at end of file
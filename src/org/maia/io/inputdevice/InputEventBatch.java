@@ -0,0 +1,109 @@
+package org.maia.io.inputdevice;
+
+/**
+ * Read-only view on the events of a single poll cycle, in order of occurrence
+ * <p>
+ * Batches are reused from one poll cycle to the next, so a batch and its events are only valid for the duration of
+ * the callback that received it.
+ * </p>
+ * 
+ * @see InputEventBatchListener
+ */
+public class InputEventBatch {
+
+	private InputEvent[] events;
+
+	private InputEvent[] ownedEvents; // private copies, allocated on demand
+
+	private int size;
+
+	private long pollCycleId;
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 32;
+
+	InputEventBatch() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	InputEventBatch(int initialCapacity) {
+		this.events = new InputEvent[Math.max(initialCapacity, 1)];
+	}
+
+	void clear(long pollCycleId) {
+		for (int i = 0; i < size; i++) {
+			events[i] = null;
+		}
+		this.size = 0;
+		this.pollCycleId = pollCycleId;
+	}
+
+	/**
+	 * Adds the given event to this batch. The batch holds on to the event itself
+	 */
+	void add(InputEvent event) {
+		ensureCapacity(size + 1);
+		events[size++] = event;
+	}
+
+	/**
+	 * Adds a copy of the given event to this batch. Copies are recycled once the batch is cleared
+	 */
+	void addCopy(InputEvent event) {
+		ensureCapacity(size + 1);
+		if (ownedEvents == null || ownedEvents.length < events.length) {
+			InputEvent[] copies = new InputEvent[events.length];
+			if (ownedEvents != null) {
+				System.arraycopy(ownedEvents, 0, copies, 0, ownedEvents.length);
+			}
+			ownedEvents = copies;
+		}
+		InputEvent copy = ownedEvents[size];
+		if (copy == null) {
+			copy = new InputEvent(null, 0f);
+			ownedEvents[size] = copy;
+		}
+		copy.assign(event);
+		events[size++] = copy;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > events.length) {
+			InputEvent[] grownEvents = new InputEvent[Math.max(capacity, events.length * 2)];
+			System.arraycopy(events, 0, grownEvents, 0, size);
+			events = grownEvents;
+		}
+	}
+
+	public InputEvent get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for batch of size " + size);
+		return events[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the poll cycle of the event source that produced the events of this batch
+	 */
+	public long getPollCycleId() {
+		return pollCycleId;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("InputEventBatch [pollCycleId=");
+		builder.append(getPollCycleId());
+		builder.append(", size=");
+		builder.append(size());
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
\ No newline at end of file
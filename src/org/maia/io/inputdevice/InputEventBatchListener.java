@@ -0,0 +1,21 @@
+package org.maia.io.inputdevice;
+
+import org.maia.util.GenericListener;
+
+/**
+ * Listener receiving the events of a poll cycle all at once, rather than one by one
+ * 
+ * @see InputEventGateway#registerGlobalBatchListener(InputEventBatchListener)
+ */
+public interface InputEventBatchListener extends GenericListener {
+
+	/**
+	 * Receives the events of a poll cycle
+	 * 
+	 * @param batch
+	 *            The events, in order. The batch and its events are only valid for the duration of this call and should
+	 *            not be retained
+	 */
+	void receiveInputEventBatch(InputEventBatch batch);
+
+}
\ No newline at end of file
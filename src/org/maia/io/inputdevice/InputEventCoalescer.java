@@ -0,0 +1,244 @@
+package org.maia.io.inputdevice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collapses the events of an analog input that occur within a time window into the most recent one
+ * <p>
+ * Events of digital inputs are never merged. They are passed on immediately, after any pending analog events of the
+ * same device. Pending analog events of other devices stay pending, so that a burst of button presses on one device
+ * does not defeat coalescing on the others. The window is checked once per poll cycle, so its effective resolution is
+ * the poll interval.
+ * </p>
+ * <p>
+ * Ordering is guaranteed per device: the released events of a device reflect the order in which its inputs last
+ * changed, and precede any later digital event of that device. Events of different devices may be passed on in a
+ * different order than they occurred.
+ * </p>
+ * <p>
+ * Released events are tagged with the poll cycle in which they are released, so that they are delivered together with
+ * the events of that cycle.
+ * </p>
+ * <p>
+ * A coalescer is not thread-safe and is meant to be driven by a single dispatching thread.
+ * </p>
+ */
+public class InputEventCoalescer {
+
+	private InputEventListener downstream;
+
+	private long windowNanos; // 0 to disable coalescing
+
+	private Map<Input, PendingEvent> pendingEvents; // one reusable slot per analog input
+
+	private PendingEvent firstPendingEvent; // pending events are linked in order of last change
+
+	private PendingEvent lastPendingEvent;
+
+	private int pendingEventCount;
+
+	private long coalescedEventCount; // events superseded by a more recent event of the same input
+
+	public InputEventCoalescer(InputEventListener downstream) {
+		this(downstream, 0L);
+	}
+
+	public InputEventCoalescer(InputEventListener downstream, long windowNanos) {
+		if (downstream == null)
+			throw new NullPointerException("Downstream listener cannot be null");
+		this.downstream = downstream;
+		this.windowNanos = windowNanos;
+		this.pendingEvents = new HashMap<Input, PendingEvent>();
+	}
+
+	/**
+	 * Passes on the given event, or holds it back when it belongs to an analog input and coalescing is enabled
+	 */
+	public void offer(InputEvent event) {
+		Input input = event.getInput();
+		if (!isEnabled()) {
+			flushAll(event.getPollCycleId());
+			getDownstream().receiveInputEvent(event);
+		} else if (input.isDigital()) {
+			flushDevice(event.getDevice(), event.getPollCycleId());
+			getDownstream().receiveInputEvent(event);
+		} else {
+			PendingEvent pendingEvent = getPendingEvents().get(input);
+			if (pendingEvent == null) {
+				pendingEvent = new PendingEvent(event);
+				getPendingEvents().put(input, pendingEvent);
+			} else if (pendingEvent.isPending()) {
+				coalescedEventCount++;
+				pendingEvent.assign(event);
+				unlink(pendingEvent);
+			} else {
+				pendingEvent.assign(event);
+				pendingEvent.setPendingSinceNanos(System.nanoTime());
+			}
+			if (!pendingEvent.isPending()) {
+				pendingEvent.setPending(true);
+				pendingEventCount++;
+			}
+			append(pendingEvent);
+		}
+	}
+
+	/**
+	 * Passes on the pending events whose window has elapsed at the given time
+	 * 
+	 * @param timeNanos
+	 *            The current time, as given by <code>System.nanoTime()</code>
+	 * @param pollCycleId
+	 *            The current poll cycle
+	 */
+	public void flushExpired(long timeNanos, long pollCycleId) {
+		long window = getWindowNanos();
+		PendingEvent pendingEvent = firstPendingEvent;
+		while (pendingEvent != null) {
+			PendingEvent nextPendingEvent = pendingEvent.getNext();
+			if (timeNanos - pendingEvent.getPendingSinceNanos() >= window) {
+				release(pendingEvent, pollCycleId);
+			}
+			pendingEvent = nextPendingEvent;
+		}
+	}
+
+	/**
+	 * Passes on all pending events, in order of last change
+	 * 
+	 * @param pollCycleId
+	 *            The current poll cycle
+	 */
+	public void flushAll(long pollCycleId) {
+		while (firstPendingEvent != null) {
+			release(firstPendingEvent, pollCycleId);
+		}
+	}
+
+	private void flushDevice(InputDevice device, long pollCycleId) {
+		PendingEvent pendingEvent = firstPendingEvent;
+		while (pendingEvent != null) {
+			PendingEvent nextPendingEvent = pendingEvent.getNext();
+			if (pendingEvent.getDevice().equals(device)) {
+				release(pendingEvent, pollCycleId);
+			}
+			pendingEvent = nextPendingEvent;
+		}
+	}
+
+	private void release(PendingEvent pendingEvent, long pollCycleId) {
+		unlink(pendingEvent);
+		pendingEvent.setPending(false);
+		pendingEvent.setPollCycleId(pollCycleId);
+		pendingEventCount--;
+		getDownstream().receiveInputEvent(pendingEvent);
+	}
+
+	private void append(PendingEvent pendingEvent) {
+		pendingEvent.setPrevious(lastPendingEvent);
+		pendingEvent.setNext(null);
+		if (lastPendingEvent != null) {
+			lastPendingEvent.setNext(pendingEvent);
+		} else {
+			firstPendingEvent = pendingEvent;
+		}
+		lastPendingEvent = pendingEvent;
+	}
+
+	private void unlink(PendingEvent pendingEvent) {
+		PendingEvent previous = pendingEvent.getPrevious();
+		PendingEvent next = pendingEvent.getNext();
+		if (previous != null) {
+			previous.setNext(next);
+		} else {
+			firstPendingEvent = next;
+		}
+		if (next != null) {
+			next.setPrevious(previous);
+		} else {
+			lastPendingEvent = previous;
+		}
+		pendingEvent.setPrevious(null);
+		pendingEvent.setNext(null);
+	}
+
+	public boolean isEnabled() {
+		return getWindowNanos() > 0L;
+	}
+
+	private InputEventListener getDownstream() {
+		return downstream;
+	}
+
+	public long getWindowNanos() {
+		return windowNanos;
+	}
+
+	public void setWindowNanos(long windowNanos) {
+		this.windowNanos = windowNanos;
+	}
+
+	private Map<Input, PendingEvent> getPendingEvents() {
+		return pendingEvents;
+	}
+
+	public int getPendingEventCount() {
+		return pendingEventCount;
+	}
+
+	public long getCoalescedEventCount() {
+		return coalescedEventCount;
+	}
+
+	private static class PendingEvent extends InputEvent {
+
+		private boolean pending;
+
+		private long pendingSinceNanos;
+
+		private PendingEvent previous;
+
+		private PendingEvent next;
+
+		public PendingEvent(InputEvent event) {
+			super(event.getInput(), event.getValue());
+			assign(event);
+			setPendingSinceNanos(System.nanoTime());
+		}
+
+		public boolean isPending() {
+			return pending;
+		}
+
+		public void setPending(boolean pending) {
+			this.pending = pending;
+		}
+
+		public long getPendingSinceNanos() {
+			return pendingSinceNanos;
+		}
+
+		public void setPendingSinceNanos(long timeNanos) {
+			this.pendingSinceNanos = timeNanos;
+		}
+
+		public PendingEvent getPrevious() {
+			return previous;
+		}
+
+		public void setPrevious(PendingEvent previous) {
+			this.previous = previous;
+		}
+
+		public PendingEvent getNext() {
+			return next;
+		}
+
+		public void setNext(PendingEvent next) {
+			this.next = next;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -2,9 +2,10 @@ package org.maia.io.inputdevice;
 
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.locks.LockSupport;
 
+import org.maia.io.inputdevice.recorder.InputFlightRecorder;
 import org.maia.util.GenericListenerList;
-import org.maia.util.SystemUtils;
 
 public class InputEventDispatcher extends Thread {
 
@@ -12,6 +13,28 @@ public class InputEventDispatcher extends Thread {
 
 	private GenericListenerList<InputEventListener> listeners;
 
+	private GenericListenerList<InputEventBatchListener> batchListeners;
+
+	private InputEventBatch batch; // events of the current poll cycle, for the batch listeners
+
+	private volatile InputPollRatePolicy pollRatePolicy; // may be replaced while dispatching
+
+	private InputEventRingBuffer ringBuffer; // when not null, listeners are served by consumer threads
+
+	private InputEventCoalescer coalescer; // holds back analog events within the coalescing window
+
+	private volatile InputFlightRecorder flightRecorder; // records every event as polled, when not null
+
+	private InputSubsystemMetrics metrics; // when not null, counts polls and scans
+
+	private volatile InputPollTimingMode pollTimingMode = InputPollTimingMode.SLEEP;
+
+	private volatile long spinThresholdNanos = DEFAULT_SPIN_THRESHOLD_NANOS; // spinning time before a deadline
+
+	private InputPollTimingStatistics pollTimingStatistics;
+
+	private DeviceScanner deviceScanner; // scans for devices in the background when in scan mode
+
 	private boolean scanMode;
 
 	private long scanIntervalMillis = 3000L; // every 3 seconds
@@ -20,50 +43,135 @@ public class InputEventDispatcher extends Thread {
 
 	private boolean stopped;
 
-	private static final int POLLS_PER_SECOND_LIMIT = 250;
+	private long droppedEventCount; // events dropped for being out of sequence
 
-	InputEventDispatcher(InputEventSource eventSource) {
+	public static final float DEFAULT_POLLS_PER_SECOND = 250f;
+
+	public static final long DEFAULT_SPIN_THRESHOLD_NANOS = 100000L;
+
+	InputEventDispatcher(InputEventSource eventSource, InputPollRatePolicy pollRatePolicy) {
+		this(eventSource, pollRatePolicy, null);
+	}
+
+	/**
+	 * Creates a dispatcher that decouples polling from listener execution by means of the given ring buffer
+	 */
+	InputEventDispatcher(InputEventSource eventSource, InputPollRatePolicy pollRatePolicy,
+			InputEventRingBuffer ringBuffer) {
 		super("InputEventDispatcher");
 		setPriority(Thread.MAX_PRIORITY);
 		setDaemon(true);
 		setStopped(true);
 		this.eventSource = eventSource;
+		this.pollRatePolicy = pollRatePolicy;
+		this.ringBuffer = ringBuffer;
+		this.pollTimingStatistics = new InputPollTimingStatistics();
+		this.deviceScanner = new DeviceScanner();
+		this.coalescer = new InputEventCoalescer(new InputEventListener() {
+
+			@Override
+			public void receiveInputEvent(InputEvent event) {
+				dispatchEvent(event);
+			}
+		});
 		this.listeners = new GenericListenerList<InputEventListener>();
+		this.batchListeners = new GenericListenerList<InputEventBatchListener>();
+		this.batch = new InputEventBatch();
 	}
 
 	public void addListener(InputEventListener listener) {
-		getListeners().addListener(listener);
+		if (getListeners().addListener(listener) && isDecoupled()) {
+			getRingBuffer().addConsumer(listener).start();
+		}
 	}
 
 	public void removeListener(InputEventListener listener) {
-		getListeners().removeListener(listener);
+		if (getListeners().removeListener(listener) && isDecoupled()) {
+			InputEventRingBuffer.Consumer consumer = getRingBuffer().getConsumer(listener);
+			if (consumer != null) {
+				getRingBuffer().removeConsumer(consumer);
+				InputEventBatchListener batchListener = consumer.getBatchListener();
+				if (batchListener != null) {
+					getRingBuffer().addBatchConsumer(batchListener).start(); // takes over the batches
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a listener that receives the events of every poll cycle in a single batch
+	 * <p>
+	 * In decoupled mode, a batch listener that is also added as listener is served by the same ring buffer consumer,
+	 * so that it receives the batch of a poll cycle on the same thread and after the events of that cycle
+	 * </p>
+	 */
+	public void addBatchListener(InputEventBatchListener listener) {
+		if (getBatchListeners().addListener(listener) && isDecoupled()) {
+			InputEventRingBuffer.Consumer consumer = null;
+			if (listener instanceof InputEventListener) {
+				consumer = getRingBuffer().getConsumer((InputEventListener) listener);
+			}
+			if (consumer != null) {
+				consumer.setBatchListener(listener);
+			} else {
+				getRingBuffer().addBatchConsumer(listener).start();
+			}
+		}
+	}
+
+	public void removeBatchListener(InputEventBatchListener listener) {
+		if (getBatchListeners().removeListener(listener) && isDecoupled()) {
+			InputEventRingBuffer.Consumer consumer = getRingBuffer().getBatchConsumer(listener);
+			if (consumer != null) {
+				if (consumer.isBatchConsumer()) {
+					getRingBuffer().removeConsumer(consumer);
+				} else {
+					consumer.setBatchListener(null);
+				}
+			}
+		}
 	}
 
 	public void removeAllListeners() {
 		getListeners().removeAllListeners();
+		getBatchListeners().removeAllListeners();
+		if (isDecoupled()) {
+			getRingBuffer().removeAllConsumers();
+		}
 	}
 
 	public void startDispatching() {
 		start();
+		getDeviceScanner().start();
 	}
 
 	public void stopDispatching() {
 		setStopDispatching(true);
+		getDeviceScanner().interrupt();
+		if (isDecoupled()) {
+			getRingBuffer().removeAllConsumers();
+		}
 	}
 
 	@Override
 	public void run() {
 		setStopped(false);
-		InputEventSource source = getEventSource();
+		InputEventSource source = null;
 		List<InputEvent> events = new Vector<InputEvent>();
-		long lastScanTime = 0;
-		long lastEventTime = 0;
-		long pollMinInterval = 1000L / POLLS_PER_SECOND_LIMIT;
+		long lastSequenceNumber = 0;
+		long lastPollTime = 0;
+		long pollInterval = 0;
+		long pollCycleId = 0;
+		long deadline = System.nanoTime();
 		while (!isStopDispatching()) {
-			long t0 = System.currentTimeMillis();
-			if (isScanMode() && t0 >= lastScanTime + getScanIntervalMillis()) {
-				source.scanInputDevices();
-				lastScanTime = t0;
+			long t0 = System.nanoTime();
+			if (pollInterval > 0) {
+				getPollTimingStatistics().recordInterval(t0 - lastPollTime, pollInterval);
+			}
+			lastPollTime = t0;
+			if (source != getEventSource()) {
+				source = getEventSource();
+				lastSequenceNumber = 0; // sequence numbers are issued per source
 			}
 			synchronized (source) {
 				events.clear();
@@ -71,21 +179,94 @@ public class InputEventDispatcher extends Thread {
 				for (int i = 0; i < polledEvents.size(); i++) {
 					events.add(polledEvents.get(i));
 				}
+				pollCycleId = source.getPollCycleId();
 			}
+			InputSubsystemMetrics metrics = getMetrics();
+			if (metrics != null) {
+				metrics.recordPoll(events);
+			}
+			getBatch().clear(pollCycleId);
+			InputFlightRecorder recorder = getFlightRecorder();
 			for (InputEvent event : events) {
-				if (event.getCreationTime() >= lastEventTime) {
-					dispatchEvent(event);
-					lastEventTime = event.getCreationTime();
+				if (recorder != null) {
+					recorder.record(event);
+				}
+				long sequenceNumber = event.getSequenceNumber();
+				if (sequenceNumber == 0) {
+					getCoalescer().offer(event); // not sequenced by the source
+				} else if (sequenceNumber > lastSequenceNumber) {
+					getCoalescer().offer(event);
+					lastSequenceNumber = sequenceNumber;
+				} else {
+					droppedEventCount++;
+				}
+			}
+			getCoalescer().flushExpired(System.nanoTime(), pollCycleId);
+			if (isDecoupled()) {
+				getRingBuffer().flush();
+			} else if (!getBatch().isEmpty()) {
+				for (InputEventBatchListener listener : getBatchListeners()) {
+					listener.receiveInputEventBatch(getBatch());
 				}
 			}
-			SystemUtils.sleep(pollMinInterval - (System.currentTimeMillis() - t0));
+			InputPollRatePolicy policy = getPollRatePolicy();
+			policy.pollCycleCompleted(events.size());
+			pollInterval = Math.round(1000000000.0 / policy.getPollsPerSecond());
+			deadline += pollInterval;
+			if (System.nanoTime() - deadline > pollInterval) {
+				deadline = System.nanoTime(); // fell behind, do not try to catch up with missed cycles
+			}
+			waitUntil(deadline);
 		}
 		setStopped(true);
 	}
 
+	private void waitUntil(long deadline) {
+		InputPollTimingMode mode = getPollTimingMode();
+		long remaining = deadline - System.nanoTime();
+		if (InputPollTimingMode.SLEEP.equals(mode)) {
+			if (remaining > 0L) {
+				try {
+					Thread.sleep(remaining / 1000000L, (int) (remaining % 1000000L));
+				} catch (InterruptedException e) {
+					// proceed with next poll cycle
+				}
+			}
+		} else {
+			long spinThreshold = InputPollTimingMode.SPIN_PARK.equals(mode) ? getSpinThresholdNanos() : 0L;
+			while (remaining > spinThreshold && !isStopDispatching()) {
+				LockSupport.parkNanos(remaining - spinThreshold);
+				remaining = deadline - System.nanoTime();
+			}
+			while (remaining > 0L && !isStopDispatching()) {
+				Thread.onSpinWait();
+				remaining = deadline - System.nanoTime();
+			}
+		}
+	}
+
+	/**
+	 * Tells whether the given thread delivers events of this dispatcher to its listeners
+	 */
+	public boolean isDispatchingThread(Thread thread) {
+		if (thread.equals(this)) {
+			return true;
+		} else {
+			return isDecoupled() && getRingBuffer().hasConsumerThread(thread);
+		}
+	}
+
 	private void dispatchEvent(InputEvent event) {
-		for (InputEventListener listener : getListeners()) {
-			listener.receiveInputEvent(event);
+		InputLatencyRecorder.getInstance().record(InputLatencyStage.POLL, event);
+		if (isDecoupled()) {
+			getRingBuffer().publish(event);
+		} else {
+			for (InputEventListener listener : getListeners()) {
+				listener.receiveInputEvent(event);
+			}
+			if (!getBatchListeners().isEmpty()) {
+				getBatch().addCopy(event); // events may be recycled within the cycle
+			}
 		}
 	}
 
@@ -101,12 +282,103 @@ public class InputEventDispatcher extends Thread {
 		return listeners;
 	}
 
+	private GenericListenerList<InputEventBatchListener> getBatchListeners() {
+		return batchListeners;
+	}
+
+	private InputEventBatch getBatch() {
+		return batch;
+	}
+
+	public boolean isDecoupled() {
+		return getRingBuffer() != null;
+	}
+
+	public InputEventRingBuffer getRingBuffer() {
+		return ringBuffer;
+	}
+
+	public InputFlightRecorder getFlightRecorder() {
+		return flightRecorder;
+	}
+
+	void setFlightRecorder(InputFlightRecorder recorder) {
+		this.flightRecorder = recorder;
+	}
+
+	private InputEventCoalescer getCoalescer() {
+		return coalescer;
+	}
+
+	public long getCoalescingWindowNanos() {
+		return getCoalescer().getWindowNanos();
+	}
+
+	void setCoalescingWindowNanos(long windowNanos) {
+		getCoalescer().setWindowNanos(windowNanos);
+	}
+
+	/**
+	 * Returns the number of analog events that were superseded by a more recent event of the same input
+	 */
+	public long getCoalescedEventCount() {
+		return getCoalescer().getCoalescedEventCount();
+	}
+
+	public InputPollRatePolicy getPollRatePolicy() {
+		return pollRatePolicy;
+	}
+
+	void setPollRatePolicy(InputPollRatePolicy pollRatePolicy) {
+		this.pollRatePolicy = pollRatePolicy;
+	}
+
+	public InputPollTimingMode getPollTimingMode() {
+		return pollTimingMode;
+	}
+
+	void setPollTimingMode(InputPollTimingMode mode) {
+		this.pollTimingMode = mode;
+	}
+
+	public long getSpinThresholdNanos() {
+		return spinThresholdNanos;
+	}
+
+	void setSpinThresholdNanos(long nanos) {
+		this.spinThresholdNanos = nanos;
+	}
+
+	public InputPollTimingStatistics getPollTimingStatistics() {
+		return pollTimingStatistics;
+	}
+
+	InputSubsystemMetrics getMetrics() {
+		return metrics;
+	}
+
+	void setMetrics(InputSubsystemMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	void setPollTimingStatistics(InputPollTimingStatistics statistics) {
+		this.pollTimingStatistics = statistics;
+	}
+
+	private DeviceScanner getDeviceScanner() {
+		return deviceScanner;
+	}
+
 	public boolean isScanMode() {
 		return scanMode;
 	}
 
 	public void setScanMode(boolean scanMode) {
+		boolean wasScanMode = this.scanMode;
 		this.scanMode = scanMode;
+		if (scanMode && !wasScanMode) {
+			getDeviceScanner().interrupt(); // scan without delay
+		}
 	}
 
 	public long getScanIntervalMillis() {
@@ -125,6 +397,10 @@ public class InputEventDispatcher extends Thread {
 		this.stopDispatching = stop;
 	}
 
+	public long getDroppedEventCount() {
+		return droppedEventCount;
+	}
+
 	public boolean isStopped() {
 		return stopped;
 	}
@@ -133,4 +409,35 @@ public class InputEventDispatcher extends Thread {
 		this.stopped = stopped;
 	}
 
+	/**
+	 * Periodically scans for input devices, so that enumeration never blocks the polling thread
+	 */
+	private class DeviceScanner extends Thread {
+
+		public DeviceScanner() {
+			super("InputDeviceScanner");
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while (!isStopDispatching()) {
+				if (isScanMode()) {
+					long t0 = System.nanoTime();
+					getEventSource().scanInputDevices();
+					InputSubsystemMetrics metrics = getMetrics();
+					if (metrics != null) {
+						metrics.recordScan(System.nanoTime() - t0);
+					}
+				}
+				try {
+					Thread.sleep(getScanIntervalMillis());
+				} catch (InterruptedException e) {
+					// re-evaluate scan mode
+				}
+			}
+		}
+
+	}
+
 }
\ No newline at end of file
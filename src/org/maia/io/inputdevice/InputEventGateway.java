@@ -1,27 +1,104 @@
 package org.maia.io.inputdevice;
 
-import java.util.Collection;
+import java.lang.management.ManagementFactory;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Vector;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+
 import org.maia.io.inputdevice.impl.jinput.JInputEventSource;
+import org.maia.io.inputdevice.recorder.InputFlightRecorder;
 import org.maia.util.GenericListener;
 import org.maia.util.GenericListenerList;
 
-public class InputEventGateway implements InputEventListener {
+public class InputEventGateway implements InputEventListener, InputEventBatchListener, InputDeviceHotplugListener {
 
 	private static InputEventGateway instance; // there can be at most 1 gateway
 
 	private InputEventDispatcher dispatcher; // there can be at most 1 running dispatcher at any given time
 
-	private InputEventSource eventSource; // there can be at most 1 event source at any given time
+	private InputEventSource eventSource; // at most 1 at any given time, use a CompositeInputEventSource to combine
 
 	private GenericListenerList<InputEventListener> globalListeners;
 
 	private GenericListenerList<InputDeviceListener> deviceListeners;
 
+	private volatile ListenerRoutingTable routingTable; // derived from the listeners, rebuilt on every change
+
+	private GenericListenerList<InputEventBatchListener> globalBatchListeners;
+
+	private GenericListenerList<InputDeviceBatchListener> deviceBatchListeners;
+
+	private InputEventBatch deviceBatch; // reused for every device batch listener
+
+	private Map<InputEventListener, QueuedInputEventListener> queuedListeners; // listeners with their own queue
+
+	private GenericListenerList<InputDeviceHotplugListener> hotplugListeners;
+
+	private InputEventBatch externalPollBatch; // reused for every external poll, also serves as its lock
+
+	private InputFlightRecorder flightRecorder; // records every polled event, when attached
+
+	/**
+	 * Determines on which thread the listeners receive their events
+	 */
+	private InputListenerExecutionMode listenerExecutionMode;
+
+	/**
+	 * Determines the pace at which the dispatcher polls the event source
+	 * <p>
+	 * Only effective when <em>externalPollMode</em> is <code>false</code>
+	 * </p>
+	 */
+	private InputPollRatePolicy pollRatePolicy;
+
+	/**
+	 * Determines how the dispatcher waits for its next poll cycle
+	 * <p>
+	 * Only effective when <em>externalPollMode</em> is <code>false</code>
+	 * </p>
+	 */
+	private InputPollTimingMode pollTimingMode;
+
+	private long spinThresholdNanos; // spinning time before a poll deadline in SPIN_PARK mode
+
+	private InputPollTimingStatistics pollTimingStatistics;
+
+	private InputSubsystemMetrics metrics; // exposed over JMX
+
+	/**
+	 * Time window within which successive events of the same analog input are collapsed into the most recent one. Events
+	 * of digital inputs are never collapsed. A value of 0 disables coalescing
+	 * <p>
+	 * Only effective when <em>externalPollMode</em> is <code>false</code>
+	 * </p>
+	 */
+	private long coalescingWindowNanos;
+
+	/**
+	 * When true, the dispatcher hands over events to the listeners through a ring buffer, so that polling keeps its
+	 * cadence regardless of the time spent by the listeners
+	 * <p>
+	 * The gateway consumes the ring buffer on a single thread, so the listeners are still invoked one after the other,
+	 * and the batch listeners follow on that same thread once the events of a poll cycle have been delivered. A
+	 * listener registered with its own queue cannot stall the others
+	 * </p>
+	 * <p>
+	 * Only effective when <em>externalPollMode</em> is <code>false</code>
+	 * </p>
+	 * 
+	 * @see #registerGlobalListener(InputEventListener, InputEventQueuePolicy, int)
+	 */
+	private boolean decoupledDispatchMode;
+
+	private int ringBufferCapacity = InputEventRingBuffer.DEFAULT_CAPACITY;
+
 	/**
 	 * When true, an external client needs to drive the polling
 	 * 
@@ -42,9 +119,32 @@ public class InputEventGateway implements InputEventListener {
 	private InputEventGateway(InputEventSource initialEventSource) {
 		this.globalListeners = new GenericListenerList<InputEventListener>();
 		this.deviceListeners = new GenericListenerList<InputDeviceListener>();
+		this.routingTable = new ListenerRoutingTable();
+		this.globalBatchListeners = new GenericListenerList<InputEventBatchListener>();
+		this.deviceBatchListeners = new GenericListenerList<InputDeviceBatchListener>();
+		this.deviceBatch = new InputEventBatch();
+		this.queuedListeners = new HashMap<InputEventListener, QueuedInputEventListener>();
+		this.hotplugListeners = new GenericListenerList<InputDeviceHotplugListener>();
+		this.externalPollBatch = new InputEventBatch();
+		this.listenerExecutionMode = InputListenerExecutionMode.INLINE;
+		this.pollRatePolicy = new FixedInputPollRatePolicy(InputEventDispatcher.DEFAULT_POLLS_PER_SECOND);
+		this.pollTimingMode = InputPollTimingMode.SLEEP;
+		this.spinThresholdNanos = InputEventDispatcher.DEFAULT_SPIN_THRESHOLD_NANOS;
+		this.pollTimingStatistics = new InputPollTimingStatistics();
+		this.metrics = new InputSubsystemMetrics(this);
+		registerMetrics();
 		switchEventSource(initialEventSource);
 	}
 
+	private void registerMetrics() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(getMetrics(),
+					new ObjectName(InputSubsystemMetrics.OBJECT_NAME));
+		} catch (JMException e) {
+			log("Could not register metrics: " + e);
+		}
+	}
+
 	public InputFilter createExplicitUserGestureInputFilter() {
 		InputFilter filter = null;
 		InputEventSource eventSource = getEventSource();
@@ -55,32 +155,149 @@ public class InputEventGateway implements InputEventListener {
 	}
 
 	public void switchEventSource(InputEventSource eventSource) {
+		InputEventSource previousEventSource = getEventSource();
+		if (previousEventSource != null) {
+			previousEventSource.removeHotplugListener(this);
+		}
 		setEventSource(eventSource);
+		if (eventSource != null) {
+			eventSource.addHotplugListener(this);
+			InputFlightRecorder recorder = getFlightRecorder();
+			if (recorder != null) {
+				recorder.registerDevices(eventSource.getInputDevices());
+			}
+		}
 		setupDispatcher();
 	}
 
+	/**
+	 * Registers a listener to be notified of devices that were added or removed since the previous scan. Notifications
+	 * are delivered on the scanning thread
+	 * 
+	 * @see #setScanMode(boolean)
+	 */
+	public void registerHotplugListener(InputDeviceHotplugListener listener) {
+		getHotplugListeners().addListener(listener);
+	}
+
+	public void unregisterHotplugListener(InputDeviceHotplugListener listener) {
+		getHotplugListeners().removeListener(listener);
+	}
+
+	/**
+	 * Registers a listener that receives all events
+	 * 
+	 * @throws IllegalArgumentException
+	 *             When the listener is already registered with its own queue
+	 */
 	public void registerGlobalListener(InputEventListener listener) {
-		if (getGlobalListeners().addListener(listener)) {
+		if (isListenerOnOwnThread(listener)) {
+			registerGlobalListener(listener, InputEventQueuePolicy.BLOCK,
+					QueuedInputEventListener.DEFAULT_QUEUE_CAPACITY);
+		} else if (getGlobalListeners().addListener(checkNotQueued(listener))) {
+			rebuildRoutingTable();
 			setupDispatcher();
 		}
 	}
 
+	/**
+	 * Registers a listener that receives the events through its own bounded queue and thread, so that it cannot stall
+	 * the other listeners
+	 * 
+	 * @throws IllegalArgumentException
+	 *             When the listener is already registered without a queue
+	 * @see #getQueuedListener(InputEventListener)
+	 */
+	public void registerGlobalListener(InputEventListener listener, InputEventQueuePolicy queuePolicy,
+			int queueCapacity) {
+		registerGlobalListener(obtainQueuedListener(listener, queuePolicy, queueCapacity));
+	}
+
 	public void unregisterGlobalListener(InputEventListener listener) {
-		if (getGlobalListeners().removeListener(listener)) {
+		if (getGlobalListeners().removeListener(getRegisteredListener(listener))) {
+			rebuildRoutingTable();
+			releaseQueuedListenerWhenUnused(listener);
 			setupDispatcher();
 		}
 	}
 
+	/**
+	 * Registers a listener that receives the events of the given device
+	 * 
+	 * @throws IllegalArgumentException
+	 *             When the listener is already registered with its own queue
+	 */
 	public void registerDeviceListener(InputDevice device, InputEventListener listener) {
-		InputDeviceListener idl = new InputDeviceListener(device, listener);
-		if (getDeviceListeners().addListener(idl)) {
-			setupDispatcher();
+		if (isListenerOnOwnThread(listener)) {
+			registerDeviceListener(device, listener, InputEventQueuePolicy.BLOCK,
+					QueuedInputEventListener.DEFAULT_QUEUE_CAPACITY);
+		} else {
+			InputDeviceListener idl = new InputDeviceListener(device, checkNotQueued(listener));
+			if (getDeviceListeners().addListener(idl)) {
+				rebuildRoutingTable();
+				setupDispatcher();
+			}
 		}
 	}
 
+	/**
+	 * Registers a device listener that receives the events through its own bounded queue and thread, so that it
+	 * cannot stall the other listeners
+	 * 
+	 * @throws IllegalArgumentException
+	 *             When the listener is already registered without a queue
+	 * @see #getQueuedListener(InputEventListener)
+	 */
+	public void registerDeviceListener(InputDevice device, InputEventListener listener,
+			InputEventQueuePolicy queuePolicy, int queueCapacity) {
+		registerDeviceListener(device, obtainQueuedListener(listener, queuePolicy, queueCapacity));
+	}
+
 	public void unregisterDeviceListener(InputDevice device, InputEventListener listener) {
-		InputDeviceListener idl = new InputDeviceListener(device, listener);
+		InputDeviceListener idl = new InputDeviceListener(device, getRegisteredListener(listener));
 		if (getDeviceListeners().removeListener(idl)) {
+			rebuildRoutingTable();
+			releaseQueuedListenerWhenUnused(listener);
+			setupDispatcher();
+		}
+	}
+
+	/**
+	 * Registers a listener that receives the events of every poll cycle in a single batch
+	 * <p>
+	 * Batch listeners are always invoked on the dispatching thread, regardless of the listener execution mode
+	 * </p>
+	 */
+	public void registerGlobalBatchListener(InputEventBatchListener listener) {
+		if (getGlobalBatchListeners().addListener(listener)) {
+			rebuildRoutingTable();
+			setupDispatcher();
+		}
+	}
+
+	public void unregisterGlobalBatchListener(InputEventBatchListener listener) {
+		if (getGlobalBatchListeners().removeListener(listener)) {
+			rebuildRoutingTable();
+			setupDispatcher();
+		}
+	}
+
+	/**
+	 * Registers a listener that receives the events of the given device in a single batch per poll cycle. Poll cycles
+	 * without events for the device are not reported
+	 * 
+	 * @see #registerGlobalBatchListener(InputEventBatchListener)
+	 */
+	public void registerDeviceBatchListener(InputDevice device, InputEventBatchListener listener) {
+		if (getDeviceBatchListeners().addListener(new InputDeviceBatchListener(device, listener))) {
+			rebuildRoutingTable();
+			setupDispatcher();
+		}
+	}
+
+	public void unregisterDeviceBatchListener(InputDevice device, InputEventBatchListener listener) {
+		if (getDeviceBatchListeners().removeListener(new InputDeviceBatchListener(device, listener))) {
+			rebuildRoutingTable();
 			setupDispatcher();
 		}
 	}
@@ -89,62 +306,278 @@ public class InputEventGateway implements InputEventListener {
 		if (hasListenersRegistered()) {
 			getGlobalListeners().removeAllListeners();
 			getDeviceListeners().removeAllListeners();
+			getGlobalBatchListeners().removeAllListeners();
+			getDeviceBatchListeners().removeAllListeners();
+			rebuildRoutingTable();
+			releaseAllQueuedListeners();
 			setupDispatcher();
 		}
 	}
 
+	private boolean isListenerOnOwnThread(InputEventListener listener) {
+		return InputListenerExecutionMode.VIRTUAL_THREAD.equals(getListenerExecutionMode())
+				&& !(listener instanceof QueuedInputEventListener);
+	}
+
+	/**
+	 * A listener is either registered plainly or with its own queue, never both, so that unregistering it is not
+	 * ambiguous
+	 */
+	private synchronized InputEventListener checkNotQueued(InputEventListener listener) {
+		if (!(listener instanceof QueuedInputEventListener) && getQueuedListeners().containsKey(listener))
+			throw new IllegalArgumentException("Listener is already registered with its own queue: " + listener);
+		return listener;
+	}
+
+	private synchronized QueuedInputEventListener obtainQueuedListener(InputEventListener listener,
+			InputEventQueuePolicy queuePolicy, int queueCapacity) {
+		QueuedInputEventListener queuedListener = getQueuedListeners().get(listener);
+		if (queuedListener == null) {
+			if (isRegistered(listener))
+				throw new IllegalArgumentException("Listener is already registered without a queue: " + listener);
+			queuedListener = new QueuedInputEventListener(listener, queuePolicy, queueCapacity,
+					getListenerExecutionMode().getThreadFactory());
+			getQueuedListeners().put(listener, queuedListener);
+			queuedListener.start();
+		}
+		return queuedListener;
+	}
+
+	private synchronized void releaseQueuedListenerWhenUnused(InputEventListener listener) {
+		QueuedInputEventListener queuedListener = getQueuedListeners().get(listener);
+		if (queuedListener != null && !isRegistered(queuedListener)) {
+			getQueuedListeners().remove(listener);
+			queuedListener.stop();
+		}
+	}
+
+	private synchronized void releaseAllQueuedListeners() {
+		for (QueuedInputEventListener queuedListener : getQueuedListeners().values()) {
+			queuedListener.stop();
+		}
+		getQueuedListeners().clear();
+	}
+
+	private synchronized InputEventListener getRegisteredListener(InputEventListener listener) {
+		QueuedInputEventListener queuedListener = getQueuedListeners().get(listener);
+		return queuedListener != null ? queuedListener : listener;
+	}
+
+	private boolean isRegistered(InputEventListener listener) {
+		if (getGlobalListeners().containsListener(listener))
+			return true;
+		for (InputDeviceListener deviceListener : getDeviceListeners()) {
+			if (deviceListener.getListener().equals(listener))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the queue through which the given listener receives its events, exposing the queue's depth and drop
+	 * statistics
+	 * 
+	 * @return The queued listener, or <code>null</code> when the listener was not registered with its own queue
+	 */
+	public synchronized QueuedInputEventListener getQueuedListener(InputEventListener listener) {
+		return getQueuedListeners().get(listener);
+	}
+
+	public synchronized List<QueuedInputEventListener> getAllQueuedListeners() {
+		return new Vector<QueuedInputEventListener>(getQueuedListeners().values());
+	}
+
 	private synchronized void setupDispatcher() {
 		InputEventSource eventSource = getEventSource();
 		InputEventDispatcher dispatcher = getDispatcher();
 		if (dispatcher != null) {
 			if (isDispatcherNeeded()) {
 				dispatcher.setEventSource(eventSource);
+				setupDispatcherBatchListener(dispatcher);
 			} else {
+				dispatcher.removeBatchListener(this);
 				dispatcher.removeListener(this);
 				dispatcher.stopDispatching();
 				setDispatcher(null);
 			}
 		} else if (isDispatcherNeeded()) {
-			dispatcher = new InputEventDispatcher(eventSource);
+			if (isDecoupledDispatchMode()) {
+				dispatcher = new InputEventDispatcher(eventSource, getPollRatePolicy(),
+						new InputEventRingBuffer(getRingBufferCapacity()));
+			} else {
+				dispatcher = new InputEventDispatcher(eventSource, getPollRatePolicy());
+			}
 			setDispatcher(dispatcher);
+			dispatcher.setPollTimingMode(getPollTimingMode());
+			dispatcher.setSpinThresholdNanos(getSpinThresholdNanos());
+			dispatcher.setCoalescingWindowNanos(getCoalescingWindowNanos());
+			dispatcher.setFlightRecorder(getFlightRecorder());
+			dispatcher.setPollTimingStatistics(getPollTimingStatistics());
+			dispatcher.setMetrics(getMetrics());
 			dispatcher.setScanMode(isScanMode());
 			dispatcher.addListener(this);
+			setupDispatcherBatchListener(dispatcher);
 			dispatcher.startDispatching();
 		}
 	}
 
+	/**
+	 * Subscribes the gateway to the batches of the dispatcher only while batch listeners are registered, so that the
+	 * dispatcher does not copy events into a batch nobody reads
+	 */
+	private void setupDispatcherBatchListener(InputEventDispatcher dispatcher) {
+		if (getRoutingTable().hasBatchListeners()) {
+			dispatcher.addBatchListener(this);
+		} else {
+			dispatcher.removeBatchListener(this);
+		}
+	}
+
 	@Override
 	public void receiveInputEvent(InputEvent event) {
-		for (InputEventListener listener : getGlobalListeners()) {
-			listener.receiveInputEvent(event);
+		InputLatencyRecorder.getInstance().record(InputLatencyStage.GATEWAY_DISPATCH, event);
+		InputSubsystemMetrics metrics = getMetrics();
+		long t0 = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ListenerRoutingTable table = getRoutingTable();
+		InputEventListener[] listeners = table.getGlobalListeners();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].receiveInputEvent(event);
 		}
-		for (InputDeviceListener deviceListener : getDeviceListeners()) {
-			if (deviceListener.getDevice().equals(event.getDevice())) {
-				InputEventListener listener = deviceListener.getListener();
-				if (!getGlobalListeners().containsListener(listener)) {
-					listener.receiveInputEvent(event);
+		listeners = table.getDeviceListeners(event.getDevice());
+		if (listeners != null) {
+			for (int i = 0; i < listeners.length; i++) {
+				listeners[i].receiveInputEvent(event);
+			}
+		}
+		if (t0 != 0L) {
+			metrics.recordListenerExecution(System.nanoTime() - t0, 1);
+		}
+	}
+
+	/**
+	 * Delivers the events of a poll cycle to the batch listeners. The events have already been delivered one by one to
+	 * the event listeners, as soon as they were polled
+	 */
+	@Override
+	public void receiveInputEventBatch(InputEventBatch batch) {
+		InputSubsystemMetrics metrics = getMetrics();
+		long t0 = metrics.isEnabled() ? System.nanoTime() : 0L;
+		ListenerRoutingTable table = getRoutingTable();
+		InputEventBatchListener[] listeners = table.getGlobalBatchListeners();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].receiveInputEventBatch(batch);
+		}
+		String[] deviceIdentifiers = table.getBatchDeviceIdentifiers();
+		for (int j = 0; j < deviceIdentifiers.length; j++) {
+			InputEventBatch deviceBatch = getDeviceBatch();
+			deviceBatch.clear(batch.getPollCycleId());
+			for (int i = 0; i < batch.size(); i++) {
+				InputEvent event = batch.get(i);
+				if (deviceIdentifiers[j].equals(event.getDevice().getIdentifier())) {
+					deviceBatch.add(event);
+				}
+			}
+			if (!deviceBatch.isEmpty()) {
+				listeners = table.getDeviceBatchListeners(j);
+				for (int i = 0; i < listeners.length; i++) {
+					listeners[i].receiveInputEventBatch(deviceBatch);
 				}
 			}
 		}
+		if (t0 != 0L) {
+			metrics.recordListenerExecution(System.nanoTime() - t0, 0);
+		}
+	}
+
+	@Override
+	public void inputDeviceAdded(InputDevice device) {
+		InputFlightRecorder recorder = getFlightRecorder();
+		if (recorder != null) {
+			recorder.registerDevice(device); // ahead of its first event
+		}
+		for (InputDeviceHotplugListener listener : getHotplugListeners()) {
+			listener.inputDeviceAdded(device);
+		}
+	}
+
+	@Override
+	public void inputDeviceRemoved(InputDevice device) {
+		for (InputDeviceHotplugListener listener : getHotplugListeners()) {
+			listener.inputDeviceRemoved(device);
+		}
 	}
 
 	public void pollExternally() {
 		InputEventSource eventSource = getEventSource();
 		if (eventSource != null && isExternalPollMode()) {
-			Collection<InputEvent> events = new Vector<InputEvent>();
-			synchronized (eventSource) {
-				events.addAll(eventSource.pollEvents());
+			InputEventBatch batch = getExternalPollBatch();
+			synchronized (batch) {
+				synchronized (eventSource) {
+					List<InputEvent> events = eventSource.pollEvents();
+					getMetrics().recordPoll(events);
+					batch.clear(eventSource.getPollCycleId());
+					InputFlightRecorder recorder = getFlightRecorder();
+					for (int i = 0; i < events.size(); i++) {
+						InputEvent event = events.get(i);
+						if (recorder != null) {
+							recorder.record(event);
+						}
+						batch.add(event);
+					}
+				}
+				for (int i = 0; i < batch.size(); i++) {
+					InputEvent event = batch.get(i);
+					InputLatencyRecorder.getInstance().record(InputLatencyStage.POLL, event);
+					receiveInputEvent(event);
+				}
+				if (!batch.isEmpty() && getRoutingTable().hasBatchListeners()) {
+					receiveInputEventBatch(batch);
+				}
 			}
-			for (InputEvent event : events) {
-				receiveInputEvent(event);
+		}
+	}
+
+	/**
+	 * Polls the event source and hands the events directly to the given sink, bypassing the registered listeners
+	 * <p>
+	 * This method does not allocate memory, so it can be called on every frame of a game loop. The sink is invoked on
+	 * the calling thread while the event source is locked, and should return promptly. Events may be reused by the
+	 * event source and should not be retained beyond the call
+	 * </p>
+	 * 
+	 * @param sink
+	 *            The receiver of the polled events
+	 * @return The number of events handed to the sink
+	 * @see #isExternalPollMode()
+	 */
+	public int pollExternally(InputEventListener sink) {
+		int count = 0;
+		InputEventSource eventSource = getEventSource();
+		if (eventSource != null && isExternalPollMode()) {
+			synchronized (eventSource) {
+				List<InputEvent> events = eventSource.pollEvents();
+				getMetrics().recordPoll(events);
+				count = events.size();
+				InputFlightRecorder recorder = getFlightRecorder();
+				for (int i = 0; i < count; i++) {
+					InputEvent event = events.get(i);
+					if (recorder != null) {
+						recorder.record(event);
+					}
+					InputLatencyRecorder.getInstance().record(InputLatencyStage.POLL, event);
+					sink.receiveInputEvent(event);
+				}
 			}
 		}
+		return count;
 	}
 
 	public void scanInputDevices() {
 		InputEventSource eventSource = getEventSource();
 		if (eventSource != null) {
+			long t0 = System.nanoTime();
 			eventSource.scanInputDevices();
+			getMetrics().recordScan(System.nanoTime() - t0);
 		}
 	}
 
@@ -166,6 +599,54 @@ public class InputEventGateway implements InputEventListener {
 		}
 	}
 
+	/**
+	 * Attaches a flight recorder that records every event polled from the event source, before coalescing and
+	 * regardless of the registered listeners. The devices of the event source are registered with the recorder as they
+	 * become known. Starting and stopping the recorder is up to the caller
+	 * 
+	 * @param recorder
+	 *            The flight recorder, replacing any previously attached one
+	 * @see InputFlightRecorder#start()
+	 */
+	public synchronized void attachFlightRecorder(InputFlightRecorder recorder) {
+		if (recorder == null)
+			throw new NullPointerException("Flight recorder cannot be null");
+		recorder.registerDevices(getInputDevices());
+		this.flightRecorder = recorder;
+		if (getDispatcher() != null) {
+			getDispatcher().setFlightRecorder(recorder);
+		}
+		setupDispatcher();
+	}
+
+	public synchronized void detachFlightRecorder() {
+		this.flightRecorder = null;
+		if (getDispatcher() != null) {
+			getDispatcher().setFlightRecorder(null);
+		}
+		setupDispatcher();
+	}
+
+	public InputFlightRecorder getFlightRecorder() {
+		return flightRecorder;
+	}
+
+	/**
+	 * Returns the current values of all inputs of a device, for consumers that sample the device rather than listen
+	 * to its events
+	 * 
+	 * @return The state of the device, or <code>null</code> when not supported by the event source
+	 * @see InputEventSource#getInputDeviceState(InputDevice)
+	 */
+	public InputDeviceState getInputDeviceState(InputDevice device) {
+		InputEventSource eventSource = getEventSource();
+		if (eventSource != null) {
+			return eventSource.getInputDeviceState(device);
+		} else {
+			return null;
+		}
+	}
+
 	public Input getInputWithIdentifier(String deviceIdentifier, String inputIdentifier) {
 		InputDevice device = getInputDeviceWithIdentifier(deviceIdentifier);
 		if (device != null) {
@@ -177,22 +658,38 @@ public class InputEventGateway implements InputEventListener {
 
 	public synchronized void runOutsideDispatcherThread(Runnable task) {
 		if (isRunningOnDispatcherThread()) {
-			new Thread(task).start();
+			if (InputListenerExecutionMode.VIRTUAL_THREAD.equals(getListenerExecutionMode())) {
+				getListenerExecutionMode().getThreadFactory().newThread(task).start();
+			} else {
+				new Thread(task).start();
+			}
 		} else {
 			task.run();
 		}
 	}
 
 	public synchronized boolean isRunningOnDispatcherThread() {
-		return Thread.currentThread().equals(getDispatcher());
+		InputEventDispatcher dispatcher = getDispatcher();
+		return dispatcher != null && dispatcher.isDispatchingThread(Thread.currentThread());
 	}
 
 	private boolean isDispatcherNeeded() {
-		return getEventSource() != null && hasListenersRegistered() && !isExternalPollMode();
+		return getEventSource() != null && (hasListenersRegistered() || getFlightRecorder() != null)
+				&& !isExternalPollMode();
+	}
+
+	/**
+	 * Derives a new routing table from the registered listeners and swaps it in atomically, so that event delivery
+	 * never sees a partially built table
+	 */
+	private synchronized void rebuildRoutingTable() {
+		setRoutingTable(new ListenerRoutingTable(getGlobalListeners(), getDeviceListeners(), getGlobalBatchListeners(),
+				getDeviceBatchListeners()));
 	}
 
 	private boolean hasListenersRegistered() {
-		return !getGlobalListeners().isEmpty() || !getDeviceListeners().isEmpty();
+		return !getGlobalListeners().isEmpty() || !getDeviceListeners().isEmpty()
+				|| !getGlobalBatchListeners().isEmpty() || !getDeviceBatchListeners().isEmpty();
 	}
 
 	private InputEventDispatcher getDispatcher() {
@@ -219,6 +716,38 @@ public class InputEventGateway implements InputEventListener {
 		return deviceListeners;
 	}
 
+	private InputEventBatch getExternalPollBatch() {
+		return externalPollBatch;
+	}
+
+	private ListenerRoutingTable getRoutingTable() {
+		return routingTable;
+	}
+
+	private void setRoutingTable(ListenerRoutingTable routingTable) {
+		this.routingTable = routingTable;
+	}
+
+	private GenericListenerList<InputEventBatchListener> getGlobalBatchListeners() {
+		return globalBatchListeners;
+	}
+
+	private GenericListenerList<InputDeviceBatchListener> getDeviceBatchListeners() {
+		return deviceBatchListeners;
+	}
+
+	private InputEventBatch getDeviceBatch() {
+		return deviceBatch;
+	}
+
+	private GenericListenerList<InputDeviceHotplugListener> getHotplugListeners() {
+		return hotplugListeners;
+	}
+
+	private Map<InputEventListener, QueuedInputEventListener> getQueuedListeners() {
+		return queuedListeners;
+	}
+
 	public boolean isExternalPollMode() {
 		return externalPollMode;
 	}
@@ -230,6 +759,214 @@ public class InputEventGateway implements InputEventListener {
 		}
 	}
 
+	private synchronized void renewDispatcher() {
+		InputEventDispatcher dispatcher = getDispatcher();
+		if (dispatcher != null) {
+			dispatcher.removeBatchListener(this);
+			dispatcher.removeListener(this);
+			dispatcher.stopDispatching();
+			setDispatcher(null);
+		}
+		setupDispatcher();
+	}
+
+	public boolean isDecoupledDispatchMode() {
+		return decoupledDispatchMode;
+	}
+
+	public synchronized void setDecoupledDispatchMode(boolean decoupled) {
+		if (decoupled != this.decoupledDispatchMode) {
+			this.decoupledDispatchMode = decoupled;
+			renewDispatcher();
+		}
+	}
+
+	public int getRingBufferCapacity() {
+		return ringBufferCapacity;
+	}
+
+	/**
+	 * Sets the number of event slots between the dispatcher and the listeners in <em>decoupledDispatchMode</em>
+	 * 
+	 * @param capacity
+	 *            The number of slots, a power of 2
+	 */
+	public synchronized void setRingBufferCapacity(int capacity) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("Capacity must be a positive power of 2: " + capacity);
+		if (capacity != this.ringBufferCapacity) {
+			this.ringBufferCapacity = capacity;
+			if (isDecoupledDispatchMode()) {
+				renewDispatcher();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of events waiting in the ring buffer for the slowest listener
+	 * 
+	 * @see #isDecoupledDispatchMode()
+	 */
+	public synchronized int getRingBufferOccupancy() {
+		InputEventDispatcher dispatcher = getDispatcher();
+		if (dispatcher != null && dispatcher.isDecoupled()) {
+			return dispatcher.getRingBuffer().getOccupancy();
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the number of events lost by listeners that fell behind by more than the ring buffer's capacity
+	 * 
+	 * @see #isDecoupledDispatchMode()
+	 */
+	public synchronized long getRingBufferOverrunCount() {
+		InputEventDispatcher dispatcher = getDispatcher();
+		if (dispatcher != null && dispatcher.isDecoupled()) {
+			return dispatcher.getRingBuffer().getOverrunCount();
+		} else {
+			return 0;
+		}
+	}
+
+	public InputListenerExecutionMode getListenerExecutionMode() {
+		return listenerExecutionMode;
+	}
+
+	/**
+	 * Sets the execution mode for listeners registered from then on. Listeners registered earlier keep their mode
+	 */
+	public synchronized void setListenerExecutionMode(InputListenerExecutionMode mode) {
+		if (mode == null)
+			throw new NullPointerException("Listener execution mode cannot be null");
+		this.listenerExecutionMode = mode;
+	}
+
+	public InputPollRatePolicy getPollRatePolicy() {
+		return pollRatePolicy;
+	}
+
+	public synchronized void setPollRatePolicy(InputPollRatePolicy pollRatePolicy) {
+		if (pollRatePolicy == null)
+			throw new NullPointerException("Poll rate policy cannot be null");
+		this.pollRatePolicy = pollRatePolicy;
+		if (getDispatcher() != null) {
+			getDispatcher().setPollRatePolicy(pollRatePolicy);
+		}
+	}
+
+	/**
+	 * Returns the number of polls per second currently targeted by the poll rate policy
+	 */
+	public float getCurrentPollRate() {
+		return getPollRatePolicy().getPollsPerSecond();
+	}
+
+	public InputPollTimingMode getPollTimingMode() {
+		return pollTimingMode;
+	}
+
+	public synchronized void setPollTimingMode(InputPollTimingMode mode) {
+		if (mode == null)
+			throw new NullPointerException("Poll timing mode cannot be null");
+		this.pollTimingMode = mode;
+		if (getDispatcher() != null) {
+			getDispatcher().setPollTimingMode(mode);
+		}
+	}
+
+	public long getSpinThresholdNanos() {
+		return spinThresholdNanos;
+	}
+
+	/**
+	 * Sets the time before a poll deadline during which the dispatcher spins rather than parks
+	 * 
+	 * @see InputPollTimingMode#SPIN_PARK
+	 */
+	public synchronized void setSpinThresholdNanos(long nanos) {
+		this.spinThresholdNanos = nanos;
+		if (getDispatcher() != null) {
+			getDispatcher().setSpinThresholdNanos(nanos);
+		}
+	}
+
+	public long getCoalescingWindowNanos() {
+		return coalescingWindowNanos;
+	}
+
+	/**
+	 * Sets the time window within which successive events of the same analog input are collapsed into the most recent
+	 * one
+	 * 
+	 * @param nanos
+	 *            The window in nanoseconds, or 0 to disable coalescing
+	 */
+	public synchronized void setCoalescingWindowNanos(long nanos) {
+		if (nanos < 0)
+			throw new IllegalArgumentException("Coalescing window cannot be negative: " + nanos);
+		this.coalescingWindowNanos = nanos;
+		if (getDispatcher() != null) {
+			getDispatcher().setCoalescingWindowNanos(nanos);
+		}
+	}
+
+	/**
+	 * Returns the number of analog events that were collapsed by the current dispatcher
+	 */
+	public long getCoalescedEventCount() {
+		InputEventDispatcher dispatcher = getDispatcher();
+		return dispatcher != null ? dispatcher.getCoalescedEventCount() : 0L;
+	}
+
+	/**
+	 * Returns the number of events dropped by the current dispatcher for being out of sequence
+	 */
+	public long getDroppedEventCount() {
+		InputEventDispatcher dispatcher = getDispatcher();
+		return dispatcher != null ? dispatcher.getDroppedEventCount() : 0L;
+	}
+
+	/**
+	 * Returns the metrics of the input subsystem, which are also registered with the platform MBean server
+	 * 
+	 * @see InputSubsystemMetrics#OBJECT_NAME
+	 */
+	public InputSubsystemMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns all registered global and device listeners, as registered by their clients
+	 */
+	synchronized List<InputEventListener> getRegisteredListeners() {
+		List<InputEventListener> listeners = new Vector<InputEventListener>();
+		for (InputEventListener listener : getGlobalListeners()) {
+			addUnwrappedListener(listener, listeners);
+		}
+		for (InputDeviceListener deviceListener : getDeviceListeners()) {
+			addUnwrappedListener(deviceListener.getListener(), listeners);
+		}
+		return listeners;
+	}
+
+	private void addUnwrappedListener(InputEventListener listener, List<InputEventListener> listeners) {
+		if (listener instanceof QueuedInputEventListener) {
+			listener = ((QueuedInputEventListener) listener).getListener();
+		}
+		if (!listeners.contains(listener)) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Returns the poll intervals achieved by the dispatcher and their jitter
+	 */
+	public InputPollTimingStatistics getPollTimingStatistics() {
+		return pollTimingStatistics;
+	}
+
 	public boolean isScanMode() {
 		return scanMode;
 	}
@@ -254,6 +991,10 @@ public class InputEventGateway implements InputEventListener {
 		}
 	}
 
+	private void log(String message) {
+		System.out.println(this.getClass().getSimpleName() + " - " + message);
+	}
+
 	private static InputEventSource getDefaultInputEventSource() {
 		return new JInputEventSource();
 	}
@@ -296,4 +1037,156 @@ public class InputEventGateway implements InputEventListener {
 
 	}
 
+	/**
+	 * Immutable snapshot of the listeners and batch listeners, indexed by device identifier. Device listeners that are
+	 * also registered as global listeners are left out, so that they receive every event only once
+	 */
+	private static class ListenerRoutingTable {
+
+		private InputEventListener[] globalListeners;
+
+		private Map<String, InputEventListener[]> deviceListeners; // by device identifier
+
+		private InputEventBatchListener[] globalBatchListeners;
+
+		private String[] batchDeviceIdentifiers;
+
+		private InputEventBatchListener[][] deviceBatchListeners; // aligned with batchDeviceIdentifiers
+
+		private static final InputEventListener[] NO_LISTENERS = new InputEventListener[0];
+
+		private static final InputEventBatchListener[] NO_BATCH_LISTENERS = new InputEventBatchListener[0];
+
+		public ListenerRoutingTable() {
+			this.globalListeners = NO_LISTENERS;
+			this.deviceListeners = Collections.emptyMap();
+			this.globalBatchListeners = NO_BATCH_LISTENERS;
+			this.batchDeviceIdentifiers = new String[0];
+			this.deviceBatchListeners = new InputEventBatchListener[0][];
+		}
+
+		public ListenerRoutingTable(GenericListenerList<InputEventListener> globalListeners,
+				GenericListenerList<InputDeviceListener> deviceListeners,
+				GenericListenerList<InputEventBatchListener> globalBatchListeners,
+				GenericListenerList<InputDeviceBatchListener> deviceBatchListeners) {
+			List<InputEventListener> globals = new Vector<InputEventListener>();
+			for (InputEventListener listener : globalListeners) {
+				globals.add(listener);
+			}
+			Map<String, List<InputEventListener>> routes = new HashMap<String, List<InputEventListener>>();
+			for (InputDeviceListener deviceListener : deviceListeners) {
+				InputEventListener listener = deviceListener.getListener();
+				if (!globals.contains(listener)) {
+					String deviceIdentifier = deviceListener.getDevice().getIdentifier();
+					List<InputEventListener> route = routes.get(deviceIdentifier);
+					if (route == null) {
+						route = new Vector<InputEventListener>();
+						routes.put(deviceIdentifier, route);
+					}
+					route.add(listener);
+				}
+			}
+			this.globalListeners = globals.toArray(NO_LISTENERS);
+			this.deviceListeners = new HashMap<String, InputEventListener[]>(routes.size() * 2);
+			for (Map.Entry<String, List<InputEventListener>> route : routes.entrySet()) {
+				this.deviceListeners.put(route.getKey(), route.getValue().toArray(NO_LISTENERS));
+			}
+			List<InputEventBatchListener> globalBatches = new Vector<InputEventBatchListener>();
+			for (InputEventBatchListener listener : globalBatchListeners) {
+				globalBatches.add(listener);
+			}
+			Map<String, List<InputEventBatchListener>> batchRoutes =
+					new LinkedHashMap<String, List<InputEventBatchListener>>();
+			for (InputDeviceBatchListener deviceListener : deviceBatchListeners) {
+				String deviceIdentifier = deviceListener.getDevice().getIdentifier();
+				List<InputEventBatchListener> route = batchRoutes.get(deviceIdentifier);
+				if (route == null) {
+					route = new Vector<InputEventBatchListener>();
+					batchRoutes.put(deviceIdentifier, route);
+				}
+				route.add(deviceListener.getListener());
+			}
+			this.globalBatchListeners = globalBatches.toArray(NO_BATCH_LISTENERS);
+			this.batchDeviceIdentifiers = batchRoutes.keySet().toArray(new String[batchRoutes.size()]);
+			this.deviceBatchListeners = new InputEventBatchListener[batchDeviceIdentifiers.length][];
+			for (int i = 0; i < batchDeviceIdentifiers.length; i++) {
+				this.deviceBatchListeners[i] = batchRoutes.get(batchDeviceIdentifiers[i]).toArray(NO_BATCH_LISTENERS);
+			}
+		}
+
+		public InputEventListener[] getGlobalListeners() {
+			return globalListeners;
+		}
+
+		public InputEventBatchListener[] getGlobalBatchListeners() {
+			return globalBatchListeners;
+		}
+
+		/**
+		 * Returns the identifiers of the devices having batch listeners
+		 */
+		public String[] getBatchDeviceIdentifiers() {
+			return batchDeviceIdentifiers;
+		}
+
+		/**
+		 * Returns the batch listeners of the device at the given position in {@link #getBatchDeviceIdentifiers()}
+		 */
+		public InputEventBatchListener[] getDeviceBatchListeners(int deviceIndex) {
+			return deviceBatchListeners[deviceIndex];
+		}
+
+		public boolean hasBatchListeners() {
+			return globalBatchListeners.length > 0 || batchDeviceIdentifiers.length > 0;
+		}
+
+		/**
+		 * Returns the listeners of the given device, other than the global listeners
+		 * 
+		 * @return The listeners, or <code>null</code> when there are none
+		 */
+		public InputEventListener[] getDeviceListeners(InputDevice device) {
+			return deviceListeners.get(device.getIdentifier());
+		}
+
+	}
+
+	private static class InputDeviceBatchListener implements GenericListener {
+
+		private InputDevice device;
+
+		private InputEventBatchListener listener;
+
+		public InputDeviceBatchListener(InputDevice device, InputEventBatchListener listener) {
+			this.device = device;
+			this.listener = listener;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(getDevice(), getListener());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			InputDeviceBatchListener other = (InputDeviceBatchListener) obj;
+			return Objects.equals(getDevice(), other.getDevice()) && Objects.equals(getListener(), other.getListener());
+		}
+
+		public InputDevice getDevice() {
+			return device;
+		}
+
+		public InputEventBatchListener getListener() {
+			return listener;
+		}
+
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package org.maia.io.inputdevice;
+
+/**
+ * Determines what happens when an event arrives at a listener's queue that is full
+ * 
+ * @see QueuedInputEventListener
+ */
+public enum InputEventQueuePolicy {
+
+	/**
+	 * Waits for the listener to take an event from the queue. This stalls the dispatching thread
+	 */
+	BLOCK,
+
+	/**
+	 * Discards the oldest queued event
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * Replaces a queued event of the same analog input by the new one, even when the queue is not full. Otherwise
+	 * discards the oldest queued event. Events of digital inputs are never merged
+	 */
+	COALESCE_LATEST_PER_INPUT;
+
+}
\ No newline at end of file
@@ -0,0 +1,318 @@
+package org.maia.io.inputdevice;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free ring buffer of preallocated event slots, written by a single producer and read by any number of consumers
+ * <p>
+ * Every consumer sees every event, either one by one or in batches per poll cycle. The producer never waits for
+ * consumers: a consumer that falls behind by more than the buffer's capacity loses the overwritten events, which is
+ * counted as an overrun.
+ * </p>
+ */
+public class InputEventRingBuffer {
+
+	private InputEvent[] slots;
+
+	private AtomicLongArray slotPositions; // position held by each slot, or WRITING while being overwritten
+
+	private int mask;
+
+	private long nextPosition; // next position to write, owned by the producer
+
+	private AtomicLong cursor; // last position visible to consumers
+
+	private AtomicLong overrunCount; // events lost by consumers that fell behind
+
+	private List<Consumer> consumers;
+
+	private static final long WRITING = -1L;
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	public InputEventRingBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public InputEventRingBuffer(int capacity) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("Capacity must be a positive power of 2: " + capacity);
+		this.slots = new InputEvent[capacity];
+		this.slotPositions = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			slots[i] = new InputEvent(null, 0f);
+			slotPositions.set(i, WRITING);
+		}
+		this.mask = capacity - 1;
+		this.cursor = new AtomicLong(-1L);
+		this.overrunCount = new AtomicLong();
+		this.consumers = new CopyOnWriteArrayList<Consumer>();
+	}
+
+	/**
+	 * Writes an event into the next slot. The event becomes visible to consumers on the next {@link #flush()}
+	 * <p>
+	 * To be invoked by the producer thread only
+	 * </p>
+	 */
+	public void publish(InputEvent event) {
+		long position = nextPosition++;
+		int index = (int) position & mask;
+		slotPositions.set(index, WRITING);
+		VarHandle.storeStoreFence();
+		slots[index].assign(event);
+		slotPositions.set(index, position);
+	}
+
+	/**
+	 * Makes all published events visible to consumers and wakes them up
+	 * <p>
+	 * To be invoked by the producer thread only
+	 * </p>
+	 */
+	public void flush() {
+		if (nextPosition - 1L != cursor.get()) {
+			cursor.set(nextPosition - 1L);
+			for (Consumer consumer : getConsumers()) {
+				consumer.wakeUp();
+			}
+		}
+	}
+
+	public Consumer addConsumer(InputEventListener listener) {
+		Consumer consumer = new Consumer(listener, null);
+		getConsumers().add(consumer);
+		return consumer;
+	}
+
+	/**
+	 * Adds a consumer that delivers the events to the given listener in batches, one per poll cycle
+	 */
+	public Consumer addBatchConsumer(InputEventBatchListener batchListener) {
+		Consumer consumer = new Consumer(null, batchListener);
+		getConsumers().add(consumer);
+		return consumer;
+	}
+
+	public Consumer getConsumer(InputEventListener listener) {
+		for (Consumer consumer : getConsumers()) {
+			if (listener.equals(consumer.getListener()))
+				return consumer;
+		}
+		return null;
+	}
+
+	public Consumer getBatchConsumer(InputEventBatchListener batchListener) {
+		for (Consumer consumer : getConsumers()) {
+			if (batchListener.equals(consumer.getBatchListener()))
+				return consumer;
+		}
+		return null;
+	}
+
+	public boolean hasConsumerThread(Thread thread) {
+		for (Consumer consumer : getConsumers()) {
+			if (consumer.equals(thread))
+				return true;
+		}
+		return false;
+	}
+
+	public void removeConsumer(Consumer consumer) {
+		getConsumers().remove(consumer);
+		consumer.stopConsuming();
+	}
+
+	public void removeAllConsumers() {
+		for (Consumer consumer : getConsumers()) {
+			removeConsumer(consumer);
+		}
+	}
+
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * Returns the number of published events not yet taken by the slowest consumer
+	 */
+	public int getOccupancy() {
+		long cursor = getCursor();
+		long slowest = cursor + 1L;
+		for (Consumer consumer : getConsumers()) {
+			slowest = Math.min(slowest, consumer.getNextPosition());
+		}
+		return (int) Math.min(Math.max(cursor + 1L - slowest, 0L), getCapacity());
+	}
+
+	public long getOverrunCount() {
+		return overrunCount.get();
+	}
+
+	public long getPublishedEventCount() {
+		return getCursor() + 1L;
+	}
+
+	private long getCursor() {
+		return cursor.get();
+	}
+
+	private List<Consumer> getConsumers() {
+		return consumers;
+	}
+
+	/**
+	 * Thread delivering the events of the ring buffer to a listener, in order of publication
+	 * <p>
+	 * A consumer of a listener can also serve a batch listener, which then receives the events of every poll cycle on
+	 * the same thread, right after the listener has received them one by one
+	 * </p>
+	 */
+	public class Consumer extends Thread {
+
+		private InputEventListener listener; // null for a consumer of a batch listener only
+
+		private volatile InputEventBatchListener batchListener;
+
+		private InputEvent event; // private copy of the slot being delivered
+
+		private InputEventBatch batch; // events of the poll cycle being collected, for a batch listener
+
+		private volatile long nextPosition;
+
+		private volatile boolean stopConsuming;
+
+		private static final long MAX_PARK_NANOS = 50000000L;
+
+		private Consumer(InputEventListener listener, InputEventBatchListener batchListener) {
+			super("InputEventRingBufferConsumer");
+			setPriority(Thread.MAX_PRIORITY);
+			setDaemon(true);
+			this.listener = listener;
+			this.batchListener = batchListener;
+			this.event = new InputEvent(null, 0f);
+			if (batchListener != null) {
+				this.batch = new InputEventBatch();
+			}
+			this.nextPosition = getCursor() + 1L;
+		}
+
+		@Override
+		public void run() {
+			while (!isStopConsuming()) {
+				if (!consumeAvailableEvents()) {
+					LockSupport.parkNanos(this, MAX_PARK_NANOS);
+				}
+			}
+		}
+
+		private boolean consumeAvailableEvents() {
+			long cursor = getCursor();
+			long position = getNextPosition();
+			if (position > cursor)
+				return false;
+			while (position <= cursor && !isStopConsuming()) {
+				if (cursor - position >= getCapacity()) {
+					long skipTo = cursor - getCapacity() + 1L;
+					overrunCount.addAndGet(skipTo - position);
+					position = skipTo;
+				}
+				if (readSlot(position)) {
+					InputEventBatchListener batchListener = getBatchListener();
+					if (batchListener != null) {
+						collectInBatch(event, batchListener);
+					}
+					if (getListener() != null) {
+						getListener().receiveInputEvent(event);
+					}
+				} else {
+					overrunCount.incrementAndGet(); // overwritten while reading
+				}
+				position++;
+				nextPosition = position;
+			}
+			if (batch != null && !batch.isEmpty()) {
+				InputEventBatchListener batchListener = getBatchListener();
+				if (batchListener != null) {
+					deliverBatch(batchListener); // the producer flushes at the end of a poll cycle
+				} else {
+					batch.clear(0L); // the batch listener was removed meanwhile
+				}
+			}
+			return true;
+		}
+
+		private void collectInBatch(InputEvent event, InputEventBatchListener batchListener) {
+			if (!batch.isEmpty() && event.getPollCycleId() != batch.getPollCycleId()) {
+				deliverBatch(batchListener); // precedes the first event of the next cycle
+			}
+			if (batch.isEmpty()) {
+				batch.clear(event.getPollCycleId());
+			}
+			batch.addCopy(event);
+		}
+
+		private void deliverBatch(InputEventBatchListener batchListener) {
+			batchListener.receiveInputEventBatch(batch);
+			batch.clear(0L);
+		}
+
+		private boolean readSlot(long position) {
+			int index = (int) position & mask;
+			if (slotPositions.get(index) != position)
+				return false;
+			event.assign(slots[index]);
+			VarHandle.acquireFence();
+			return slotPositions.get(index) == position;
+		}
+
+		void wakeUp() {
+			LockSupport.unpark(this);
+		}
+
+		public void stopConsuming() {
+			stopConsuming = true;
+			wakeUp();
+		}
+
+		public InputEventListener getListener() {
+			return listener;
+		}
+
+		public InputEventBatchListener getBatchListener() {
+			return batchListener;
+		}
+
+		/**
+		 * Sets the batch listener served alongside the listener of this consumer
+		 * 
+		 * @param batchListener
+		 *            The batch listener, or <code>null</code> to stop collecting batches
+		 */
+		public synchronized void setBatchListener(InputEventBatchListener batchListener) {
+			if (batchListener != null && batch == null) {
+				this.batch = new InputEventBatch();
+			}
+			this.batchListener = batchListener;
+		}
+
+		public boolean isBatchConsumer() {
+			return getListener() == null;
+		}
+
+		public long getNextPosition() {
+			return nextPosition;
+		}
+
+		private boolean isStopConsuming() {
+			return stopConsuming;
+		}
+
+	}
+
+}
\ No newline at end of file
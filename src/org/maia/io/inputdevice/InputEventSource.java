@@ -1,6 +1,11 @@
 package org.maia.io.inputdevice;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import org.maia.util.GenericListenerList;
 
 public abstract class InputEventSource {
 
@@ -8,19 +13,110 @@ public abstract class InputEventSource {
 
 	private InputFilter inputFilter;
 
+	private long pollCycleId; // identifies the current poll cycle
+
+	private long eventSequenceNumber; // last sequence number issued to an event
+
+	private Map<String, InputDevice> knownInputDevices; // by identifier, as of the last scan
+
+	private GenericListenerList<InputDeviceHotplugListener> hotplugListeners;
+
 	protected InputEventSource(InputDeviceFilter deviceFilter, InputFilter inputFilter) {
 		this.deviceFilter = deviceFilter;
 		this.inputFilter = inputFilter;
+		this.knownInputDevices = new HashMap<String, InputDevice>();
+		this.hotplugListeners = new GenericListenerList<InputDeviceHotplugListener>();
+	}
+
+	public void addHotplugListener(InputDeviceHotplugListener listener) {
+		getHotplugListeners().addListener(listener);
+	}
+
+	public void removeHotplugListener(InputDeviceHotplugListener listener) {
+		getHotplugListeners().removeListener(listener);
 	}
 
 	public abstract InputFilter createExplicitUserGestureInputFilter();
 
 	public abstract List<InputEvent> pollEvents();
 
+	/**
+	 * Marks the start of a new poll cycle. Subclasses invoke this once at the start of every poll
+	 * 
+	 * @return The identifier of the new poll cycle
+	 */
+	protected long beginPollCycle() {
+		return ++pollCycleId;
+	}
+
+	/**
+	 * Issues the next sequence number of this source to the given event and tags it with the current poll cycle
+	 */
+	protected void stampEvent(InputEvent event) {
+		event.setSequenceNumber(++eventSequenceNumber);
+		event.setPollCycleId(getPollCycleId());
+	}
+
 	public abstract void scanInputDevices();
 
+	/**
+	 * Sets the devices against which the next scan will be compared, without notifying hotplug listeners
+	 */
+	protected void setKnownInputDevices(List<InputDevice> devices) {
+		synchronized (knownInputDevices) {
+			knownInputDevices.clear();
+			for (InputDevice device : devices) {
+				knownInputDevices.put(device.getIdentifier(), device);
+			}
+		}
+	}
+
+	/**
+	 * Compares the given devices with those of the previous scan and notifies the hotplug listeners of the
+	 * differences. The given devices then become the known devices. Subclasses invoke this after every scan
+	 */
+	protected void updateKnownInputDevices(List<InputDevice> devices) {
+		List<InputDevice> addedDevices = new Vector<InputDevice>();
+		List<InputDevice> removedDevices = new Vector<InputDevice>();
+		synchronized (knownInputDevices) {
+			Map<String, InputDevice> previousDevices = new HashMap<String, InputDevice>(knownInputDevices);
+			knownInputDevices.clear();
+			for (InputDevice device : devices) {
+				knownInputDevices.put(device.getIdentifier(), device);
+				if (previousDevices.remove(device.getIdentifier()) == null) {
+					addedDevices.add(device);
+				}
+			}
+			removedDevices.addAll(previousDevices.values());
+		}
+		// Listeners are notified outside of the lock
+		for (InputDevice device : removedDevices) {
+			for (InputDeviceHotplugListener listener : getHotplugListeners()) {
+				listener.inputDeviceRemoved(device);
+			}
+		}
+		for (InputDevice device : addedDevices) {
+			for (InputDeviceHotplugListener listener : getHotplugListeners()) {
+				listener.inputDeviceAdded(device);
+			}
+		}
+	}
+
 	public abstract List<InputDevice> getInputDevices();
 
+	/**
+	 * Returns the current values of all inputs of a device, which can be read by any thread without locking
+	 * <p>
+	 * The returned state is kept up to date by polling. Subclasses that maintain device states override this method
+	 * </p>
+	 * 
+	 * @return The state of the device, or <code>null</code> when not supported by this source or when the device is
+	 *         unknown
+	 */
+	public InputDeviceState getInputDeviceState(InputDevice device) {
+		return null;
+	}
+
 	public InputDevice getInputDeviceWithIdentifier(String identifier) {
 		for (InputDevice device : getInputDevices()) {
 			if (device.getIdentifier().equals(identifier))
@@ -29,6 +125,18 @@ public abstract class InputEventSource {
 		return null;
 	}
 
+	public long getPollCycleId() {
+		return pollCycleId;
+	}
+
+	public long getEventSequenceNumber() {
+		return eventSequenceNumber;
+	}
+
+	private GenericListenerList<InputDeviceHotplugListener> getHotplugListeners() {
+		return hotplugListeners;
+	}
+
 	public InputDeviceFilter getDeviceFilter() {
 		return deviceFilter;
 	}
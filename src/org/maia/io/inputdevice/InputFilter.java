@@ -8,8 +8,23 @@ public interface InputFilter {
 		public boolean accept(Input input) {
 			return true;
 		}
+
+		@Override
+		public boolean isStable() {
+			return true;
+		}
 	};
 
 	boolean accept(Input input);
 
+	/**
+	 * Tells whether the verdict for an input never changes. Event sources may then evaluate the filter once per input
+	 * and cache the verdict until the filter is replaced or the devices are scanned again
+	 * 
+	 * @return <code>true</code> when the verdicts can be cached, <code>false</code> by default
+	 */
+	default boolean isStable() {
+		return false;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package org.maia.io.inputdevice;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds, with log-linear buckets
+ * <p>
+ * Every power of two is divided into a fixed number of linear sub-buckets, giving a relative precision of about 6% over
+ * the entire range. Recording a latency does not allocate memory and does not take a lock, so the histogram can be
+ * updated from a latency-critical thread while being read from another. A reading taken during concurrent recordings
+ * may be off by the latencies recorded in the meantime.
+ * </p>
+ */
+public class InputLatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int MAXIMUM_VALUE_BITS = 40; // about 18 minutes
+
+	private static final long MAXIMUM_VALUE = (1L << MAXIMUM_VALUE_BITS) - 1L;
+
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (MAXIMUM_VALUE_BITS - SUB_BUCKET_BITS + 1);
+
+	private AtomicLongArray counts;
+
+	private AtomicLong totalCount;
+
+	private AtomicLong totalNanos;
+
+	private AtomicLong maximumNanos;
+
+	public InputLatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKET_COUNT);
+		this.totalCount = new AtomicLong();
+		this.totalNanos = new AtomicLong();
+		this.maximumNanos = new AtomicLong();
+	}
+
+	public void recordLatency(long latencyNanos) {
+		long value = Math.min(Math.max(latencyNanos, 0L), MAXIMUM_VALUE);
+		counts.incrementAndGet(getBucketIndex(value));
+		totalCount.incrementAndGet();
+		totalNanos.addAndGet(value);
+		long maximum = maximumNanos.get();
+		while (value > maximum && !maximumNanos.compareAndSet(maximum, value)) {
+			maximum = maximumNanos.get();
+		}
+	}
+
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0L);
+		}
+		totalCount.set(0L);
+		totalNanos.set(0L);
+		maximumNanos.set(0L);
+	}
+
+	/**
+	 * Returns the latency below which the given percentage of the recorded latencies falls
+	 * 
+	 * @param percentile
+	 *            The percentage, between 0 and 100
+	 * @return The latency in nanoseconds, as the upper bound of the bucket holding the percentile, or 0 when nothing was
+	 *         recorded
+	 */
+	public long getLatencyAtPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100.0)
+			throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+		long count = getCount();
+		long maximum = getMaximumNanos();
+		if (count == 0L)
+			return 0L;
+		long rank = Math.max((long) Math.ceil(percentile / 100.0 * count), 1L);
+		long cumulativeCount = 0L;
+		for (int i = 0; i < counts.length(); i++) {
+			cumulativeCount += counts.get(i);
+			if (cumulativeCount >= rank) {
+				return Math.min(getBucketUpperBound(i), maximum);
+			}
+		}
+		return maximum;
+	}
+
+	private static int getBucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		} else {
+			int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+			int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+			return SUB_BUCKET_COUNT * (shift + 1) + subBucket;
+		}
+	}
+
+	private static long getBucketUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		} else {
+			int shift = index / SUB_BUCKET_COUNT - 1;
+			int subBucket = index % SUB_BUCKET_COUNT;
+			return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1L;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("InputLatencyHistogram [count=");
+		builder.append(getCount());
+		builder.append(", p50Nanos=");
+		builder.append(getLatencyAtPercentile(50.0));
+		builder.append(", p99Nanos=");
+		builder.append(getLatencyAtPercentile(99.0));
+		builder.append(", p999Nanos=");
+		builder.append(getLatencyAtPercentile(99.9));
+		builder.append(", maximumNanos=");
+		builder.append(getMaximumNanos());
+		builder.append("]");
+		return builder.toString();
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	public long getMeanNanos() {
+		long count = getCount();
+		return count > 0 ? totalNanos.get() / count : 0;
+	}
+
+	public long getMaximumNanos() {
+		return maximumNanos.get();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package org.maia.io.inputdevice;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.maia.io.inputdevice.controller.InputController;
+
+/**
+ * Records the latency of input events at every {@link InputLatencyStage}, measured from the creation of the event by
+ * the event source
+ * <p>
+ * Latencies are kept per device and per controller. Apart from the first recording for a device or controller,
+ * recording does not allocate memory nor take a lock.
+ * </p>
+ * <p>
+ * Recording is disabled by default, so that it does not add to the latencies it measures. Enable it with
+ * {@link #setEnabled(boolean)} when profiling.
+ * </p>
+ */
+public class InputLatencyRecorder {
+
+	private static final InputLatencyRecorder instance = new InputLatencyRecorder();
+
+	private ConcurrentMap<String, InputLatencyHistogram[]> deviceHistograms; // by device identifier
+
+	private ConcurrentMap<InputController, InputLatencyHistogram[]> controllerHistograms; // until disposed
+
+	private volatile boolean enabled;
+
+	private InputLatencyRecorder() {
+		this.deviceHistograms = new ConcurrentHashMap<String, InputLatencyHistogram[]>();
+		this.controllerHistograms = new ConcurrentHashMap<InputController, InputLatencyHistogram[]>();
+	}
+
+	public static InputLatencyRecorder getInstance() {
+		return instance;
+	}
+
+	public void record(InputLatencyStage stage, InputEvent event) {
+		record(stage, event, null);
+	}
+
+	/**
+	 * Records the latency of an event at the given stage, for its device and optionally for a controller
+	 * 
+	 * @param stage
+	 *            The stage reached by the event
+	 * @param event
+	 *            The event
+	 * @param controller
+	 *            The controller processing the event, or <code>null</code>
+	 */
+	public void record(InputLatencyStage stage, InputEvent event, InputController controller) {
+		if (isEnabled()) {
+			long latency = System.nanoTime() - event.getCreationTimeNanos();
+			getHistograms(getDeviceHistograms(), event.getDevice().getIdentifier())[stage.ordinal()]
+					.recordLatency(latency);
+			if (controller != null) {
+				getHistograms(getControllerHistograms(), controller)[stage.ordinal()].recordLatency(latency);
+			}
+		}
+	}
+
+	private <K> InputLatencyHistogram[] getHistograms(ConcurrentMap<K, InputLatencyHistogram[]> map, K key) {
+		InputLatencyHistogram[] histograms = map.get(key);
+		if (histograms == null) {
+			histograms = createHistograms();
+			InputLatencyHistogram[] existingHistograms = map.putIfAbsent(key, histograms);
+			if (existingHistograms != null) {
+				histograms = existingHistograms;
+			}
+		}
+		return histograms;
+	}
+
+	private InputLatencyHistogram[] createHistograms() {
+		InputLatencyStage[] stages = InputLatencyStage.values();
+		InputLatencyHistogram[] histograms = new InputLatencyHistogram[stages.length];
+		for (int i = 0; i < stages.length; i++) {
+			histograms[i] = new InputLatencyHistogram();
+		}
+		return histograms;
+	}
+
+	/**
+	 * Returns the latencies of a device at the given stage
+	 * 
+	 * @return The histogram, or <code>null</code> when no event was recorded for the device
+	 */
+	public InputLatencyHistogram getDeviceHistogram(InputLatencyStage stage, String deviceIdentifier) {
+		InputLatencyHistogram[] histograms = getDeviceHistograms().get(deviceIdentifier);
+		return histograms != null ? histograms[stage.ordinal()] : null;
+	}
+
+	/**
+	 * Returns the latencies of a controller at the given stage
+	 * 
+	 * @return The histogram, or <code>null</code> when no event was recorded for the controller
+	 */
+	public InputLatencyHistogram getControllerHistogram(InputLatencyStage stage, InputController controller) {
+		InputLatencyHistogram[] histograms = getControllerHistograms().get(controller);
+		return histograms != null ? histograms[stage.ordinal()] : null;
+	}
+
+	public Set<String> getDeviceIdentifiers() {
+		return Collections.unmodifiableSet(getDeviceHistograms().keySet());
+	}
+
+	public Set<InputController> getControllers() {
+		return Collections.unmodifiableSet(getControllerHistograms().keySet());
+	}
+
+	/**
+	 * Discards the latencies of a controller, so that the recorder does not hold on to it once it is disposed
+	 */
+	public void removeController(InputController controller) {
+		getControllerHistograms().remove(controller);
+	}
+
+	public void reset() {
+		getDeviceHistograms().clear();
+		getControllerHistograms().clear();
+	}
+
+	private ConcurrentMap<String, InputLatencyHistogram[]> getDeviceHistograms() {
+		return deviceHistograms;
+	}
+
+	private ConcurrentMap<InputController, InputLatencyHistogram[]> getControllerHistograms() {
+		return controllerHistograms;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.maia.io.inputdevice;
+
+/**
+ * A stage in the journey of an input event, from the moment it is polled from the event source up until a command is
+ * fired by a controller
+ * 
+ * @see InputLatencyRecorder
+ */
+public enum InputLatencyStage {
+
+	/**
+	 * The event is handed over by the dispatcher, either to the listeners or to the ring buffer
+	 */
+	POLL,
+
+	/**
+	 * The event is delivered by the gateway to its listeners
+	 */
+	GATEWAY_DISPATCH,
+
+	/**
+	 * The event has been processed by the current context of a controller
+	 */
+	CONTEXT_PROCESSING,
+
+	/**
+	 * The event fires a command of a gated controller
+	 */
+	COMMAND_FIRE;
+
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package org.maia.io.inputdevice;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Determines on which thread the listeners of the <code>InputEventGateway</code> receive their events
+ */
+public enum InputListenerExecutionMode {
+
+	/**
+	 * All listeners are invoked one after another on the dispatching thread
+	 */
+	INLINE,
+
+	/**
+	 * Every listener receives its events in order on its own virtual thread, so that blocking work in a listener does
+	 * not stall the dispatching thread nor the other listeners
+	 * <p>
+	 * Falls back to platform threads when the Java runtime does not support virtual threads
+	 * </p>
+	 */
+	VIRTUAL_THREAD;
+
+	private static ThreadFactory virtualThreadFactory;
+
+	public ThreadFactory getThreadFactory() {
+		if (VIRTUAL_THREAD.equals(this)) {
+			return getVirtualThreadFactory();
+		} else {
+			return QueuedInputEventListener.DEFAULT_THREAD_FACTORY;
+		}
+	}
+
+	private static synchronized ThreadFactory getVirtualThreadFactory() {
+		if (virtualThreadFactory == null) {
+			virtualThreadFactory = createVirtualThreadFactory();
+		}
+		return virtualThreadFactory;
+	}
+
+	private static ThreadFactory createVirtualThreadFactory() {
+		try {
+			// Resolved reflectively to remain compatible with runtimes predating virtual threads
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder,
+					"VirtualInputEventListener-", 0L);
+			Method factoryMethod = builderClass.getMethod("factory");
+			return (ThreadFactory) factoryMethod.invoke(builder);
+		} catch (Exception e) {
+			System.out.println(InputListenerExecutionMode.class.getSimpleName()
+					+ " - Virtual threads not supported, falling back to platform threads");
+			return QueuedInputEventListener.DEFAULT_THREAD_FACTORY;
+		}
+	}
+
+}
\ No newline at end of file
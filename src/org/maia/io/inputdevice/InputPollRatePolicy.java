@@ -0,0 +1,9 @@
+package org.maia.io.inputdevice;
+
+public interface InputPollRatePolicy {
+
+	void pollCycleCompleted(int eventCount);
+
+	float getPollsPerSecond();
+
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.maia.io.inputdevice;
+
+/**
+ * Determines how the dispatcher waits for the deadline of its next poll cycle
+ */
+public enum InputPollTimingMode {
+
+	/**
+	 * Sleeps until the deadline, subject to the granularity of <code>Thread.sleep</code>
+	 */
+	SLEEP,
+
+	/**
+	 * Parks the thread until the deadline with nanosecond resolution
+	 */
+	PARK,
+
+	/**
+	 * Parks the thread until shortly before the deadline, then spins for the final microseconds. Trades CPU time for
+	 * the lowest jitter
+	 */
+	SPIN_PARK;
+
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package org.maia.io.inputdevice;
+
+/**
+ * Keeps track of the poll intervals achieved by the dispatcher and their deviation from the targeted intervals
+ */
+public class InputPollTimingStatistics {
+
+	private long intervalCount;
+
+	private long intervalSumNanos;
+
+	private long jitterSumNanos; // sum of absolute deviations
+
+	private long maximumJitterNanos;
+
+	public InputPollTimingStatistics() {
+	}
+
+	public synchronized void recordInterval(long achievedIntervalNanos, long targetIntervalNanos) {
+		long jitter = Math.abs(achievedIntervalNanos - targetIntervalNanos);
+		intervalCount++;
+		intervalSumNanos += achievedIntervalNanos;
+		jitterSumNanos += jitter;
+		maximumJitterNanos = Math.max(maximumJitterNanos, jitter);
+	}
+
+	public synchronized void reset() {
+		intervalCount = 0;
+		intervalSumNanos = 0;
+		jitterSumNanos = 0;
+		maximumJitterNanos = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("InputPollTimingStatistics [intervals=");
+		builder.append(getIntervalCount());
+		builder.append(", meanIntervalNanos=");
+		builder.append(getMeanIntervalNanos());
+		builder.append(", meanJitterNanos=");
+		builder.append(getMeanJitterNanos());
+		builder.append(", maximumJitterNanos=");
+		builder.append(getMaximumJitterNanos());
+		builder.append("]");
+		return builder.toString();
+	}
+
+	public synchronized long getIntervalCount() {
+		return intervalCount;
+	}
+
+	public synchronized long getMeanIntervalNanos() {
+		return intervalCount > 0 ? intervalSumNanos / intervalCount : 0;
+	}
+
+	public synchronized long getMeanJitterNanos() {
+		return intervalCount > 0 ? jitterSumNanos / intervalCount : 0;
+	}
+
+	public synchronized long getMaximumJitterNanos() {
+		return maximumJitterNanos;
+	}
+
+	/**
+	 * Returns the achieved number of polls per second
+	 */
+	public synchronized float getPollsPerSecond() {
+		long meanInterval = getMeanIntervalNanos();
+		return meanInterval > 0 ? 1.0e9f / meanInterval : 0f;
+	}
+
+}
\ No newline at end of file
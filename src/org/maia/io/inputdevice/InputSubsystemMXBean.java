@@ -0,0 +1,65 @@
+package org.maia.io.inputdevice;
+
+import java.util.Map;
+
+/**
+ * Management interface of the input subsystem, registered by the {@link InputEventGateway} with the platform MBean
+ * server under {@link InputSubsystemMetrics#OBJECT_NAME}
+ * <p>
+ * Rates are measured over the most recent window of about one second.
+ * </p>
+ */
+public interface InputSubsystemMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Clears all counters
+	 */
+	void reset();
+
+	double getPollsPerSecond();
+
+	long getPollCount();
+
+	long getEventCount();
+
+	/**
+	 * Returns the number of events per second for every device that produced events since the last reset, by device
+	 * identifier
+	 */
+	Map<String, Double> getEventsPerSecondByDevice();
+
+	/**
+	 * Returns the number of events dropped by the dispatcher for being out of sequence
+	 */
+	long getDroppedOutOfOrderEventCount();
+
+	long getCoalescedEventCount();
+
+	long getScanCount();
+
+	double getLastScanMillis();
+
+	double getMeanScanMillis();
+
+	/**
+	 * Returns the total time spent in listeners, including the time to hand events to queued listeners
+	 */
+	long getListenerExecutionNanos();
+
+	double getMeanListenerExecutionNanosPerEvent();
+
+	/**
+	 * Returns the number of commands scheduled for auto-repeat
+	 */
+	int getRepeaterQueueSize();
+
+	/**
+	 * Returns the number of controllers subscribed to the gateway
+	 */
+	int getLiveControllerCount();
+
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+package org.maia.io.inputdevice;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.maia.io.inputdevice.controller.GatedInputCommandRepeater;
+import org.maia.io.inputdevice.controller.InputController;
+
+/**
+ * Collects the metrics of the input subsystem, exposed over JMX
+ * <p>
+ * Polls are counted by the thread that polls the event source. Rates are derived once per window, on the polling
+ * thread, so reading the metrics never interferes with polling. Apart from the first event of a device, recording does
+ * not allocate memory.
+ * </p>
+ * <p>
+ * Recording is disabled by default, as it adds a lookup per event and timing of the listeners to the delivery of
+ * every event. Enable it over JMX or with {@link #setEnabled(boolean)} when monitoring.
+ * </p>
+ * 
+ * @see InputEventGateway#getMetrics()
+ */
+public class InputSubsystemMetrics implements InputSubsystemMXBean {
+
+	private InputEventGateway gateway;
+
+	private volatile boolean enabled;
+
+	private AtomicLong pollCount;
+
+	private AtomicLong eventCount;
+
+	private ConcurrentMap<String, DeviceCounter> deviceCounters; // by device identifier
+
+	private long windowStartNanos;
+
+	private long windowStartPollCount;
+
+	private volatile double pollsPerSecond; // over the last completed window
+
+	private volatile long lastWindowEndNanos;
+
+	private long scanCount;
+
+	private long scanNanos;
+
+	private long lastScanNanos;
+
+	private AtomicLong listenerExecutionNanos;
+
+	private AtomicLong listenerExecutionEventCount;
+
+	public static final String OBJECT_NAME = "org.maia.io.inputdevice:type=InputSubsystem";
+
+	private static final long WINDOW_NANOS = 1000000000L;
+
+	InputSubsystemMetrics(InputEventGateway gateway) {
+		this.gateway = gateway;
+		this.pollCount = new AtomicLong();
+		this.eventCount = new AtomicLong();
+		this.deviceCounters = new ConcurrentHashMap<String, DeviceCounter>();
+		this.listenerExecutionNanos = new AtomicLong();
+		this.listenerExecutionEventCount = new AtomicLong();
+		this.windowStartNanos = System.nanoTime();
+	}
+
+	/**
+	 * Records a poll of the event source and the events it produced
+	 */
+	void recordPoll(List<InputEvent> events) {
+		if (!isEnabled())
+			return;
+		pollCount.incrementAndGet();
+		int count = events.size();
+		if (count > 0) {
+			eventCount.addAndGet(count);
+			for (int i = 0; i < count; i++) {
+				getDeviceCounter(events.get(i).getDevice().getIdentifier()).increment();
+			}
+		}
+		long now = System.nanoTime();
+		if (now - windowStartNanos >= WINDOW_NANOS) {
+			closeWindow(now);
+		}
+	}
+
+	private synchronized void closeWindow(long now) {
+		long elapsed = now - windowStartNanos;
+		if (elapsed < WINDOW_NANOS)
+			return; // closed by a concurrent poller
+		long polls = pollCount.get();
+		pollsPerSecond = (polls - windowStartPollCount) * 1.0e9 / elapsed;
+		windowStartPollCount = polls;
+		for (DeviceCounter counter : deviceCounters.values()) {
+			counter.closeWindow(elapsed);
+		}
+		windowStartNanos = now;
+		lastWindowEndNanos = now;
+	}
+
+	private DeviceCounter getDeviceCounter(String deviceIdentifier) {
+		DeviceCounter counter = deviceCounters.get(deviceIdentifier);
+		if (counter == null) {
+			counter = new DeviceCounter();
+			DeviceCounter existingCounter = deviceCounters.putIfAbsent(deviceIdentifier, counter);
+			if (existingCounter != null) {
+				counter = existingCounter;
+			}
+		}
+		return counter;
+	}
+
+	synchronized void recordScan(long nanos) {
+		scanCount++;
+		scanNanos += nanos;
+		lastScanNanos = nanos;
+	}
+
+	void recordListenerExecution(long nanos, int eventCount) {
+		listenerExecutionNanos.addAndGet(nanos);
+		listenerExecutionEventCount.addAndGet(eventCount);
+	}
+
+	/**
+	 * Tells whether the rates are up to date, which is not the case when polling has stopped
+	 */
+	private boolean isCurrent() {
+		return System.nanoTime() - lastWindowEndNanos < 2 * WINDOW_NANOS;
+	}
+
+	@Override
+	public synchronized void reset() {
+		pollCount.set(0);
+		eventCount.set(0);
+		deviceCounters.clear();
+		windowStartNanos = System.nanoTime();
+		windowStartPollCount = 0;
+		pollsPerSecond = 0;
+		scanCount = 0;
+		scanNanos = 0;
+		lastScanNanos = 0;
+		listenerExecutionNanos.set(0);
+		listenerExecutionEventCount.set(0);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public double getPollsPerSecond() {
+		return isCurrent() ? pollsPerSecond : 0;
+	}
+
+	@Override
+	public long getPollCount() {
+		return pollCount.get();
+	}
+
+	@Override
+	public long getEventCount() {
+		return eventCount.get();
+	}
+
+	@Override
+	public Map<String, Double> getEventsPerSecondByDevice() {
+		boolean current = isCurrent();
+		Map<String, Double> rates = new TreeMap<String, Double>();
+		for (Map.Entry<String, DeviceCounter> entry : deviceCounters.entrySet()) {
+			rates.put(entry.getKey(), current ? entry.getValue().getEventsPerSecond() : 0);
+		}
+		return rates;
+	}
+
+	@Override
+	public long getDroppedOutOfOrderEventCount() {
+		return getGateway().getDroppedEventCount();
+	}
+
+	@Override
+	public long getCoalescedEventCount() {
+		return getGateway().getCoalescedEventCount();
+	}
+
+	@Override
+	public synchronized long getScanCount() {
+		return scanCount;
+	}
+
+	@Override
+	public synchronized double getLastScanMillis() {
+		return lastScanNanos / 1.0e6;
+	}
+
+	@Override
+	public synchronized double getMeanScanMillis() {
+		return scanCount > 0 ? scanNanos / 1.0e6 / scanCount : 0;
+	}
+
+	@Override
+	public long getListenerExecutionNanos() {
+		return listenerExecutionNanos.get();
+	}
+
+	@Override
+	public double getMeanListenerExecutionNanosPerEvent() {
+		long events = listenerExecutionEventCount.get();
+		return events > 0 ? listenerExecutionNanos.get() / (double) events : 0;
+	}
+
+	@Override
+	public int getRepeaterQueueSize() {
+		return GatedInputCommandRepeater.getInstance().getScheduledEventCount();
+	}
+
+	@Override
+	public int getLiveControllerCount() {
+		int count = 0;
+		for (InputEventListener listener : getGateway().getRegisteredListeners()) {
+			if (listener instanceof InputController) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private InputEventGateway getGateway() {
+		return gateway;
+	}
+
+	private static class DeviceCounter {
+
+		private AtomicLong eventCount;
+
+		private long windowStartEventCount;
+
+		private volatile double eventsPerSecond; // over the last completed window
+
+		public DeviceCounter() {
+			this.eventCount = new AtomicLong();
+		}
+
+		public void increment() {
+			eventCount.incrementAndGet();
+		}
+
+		public void closeWindow(long elapsedNanos) {
+			long events = eventCount.get();
+			eventsPerSecond = (events - windowStartEventCount) * 1.0e9 / elapsedNanos;
+			windowStartEventCount = events;
+		}
+
+		public double getEventsPerSecond() {
+			return eventsPerSecond;
+		}
+
+	}
+
+}
\ No newline at end of file
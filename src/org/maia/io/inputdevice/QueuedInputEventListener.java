@@ -0,0 +1,246 @@
+package org.maia.io.inputdevice;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Listener that hands over events to a delegate listener through its own bounded queue and thread
+ * <p>
+ * The events are delivered to the delegate in the order they were received, apart from the ones that were dropped or
+ * coalesced according to the queue policy. A coalesced event takes the place of the most recent event, so it is never
+ * delivered ahead of events received before it.
+ * </p>
+ * <p>
+ * Events are queued from construction on, and delivered once the listener is started.
+ * </p>
+ */
+public class QueuedInputEventListener implements InputEventListener {
+
+	private InputEventListener listener;
+
+	private InputEventQueuePolicy queuePolicy;
+
+	private InputEvent[] queue; // preallocated ring of event copies
+
+	private int queueHead; // index of the oldest queued event
+
+	private int queueDepth;
+
+	private int maximumQueueDepth; // high-water mark
+
+	private long receivedEventCount;
+
+	private long droppedEventCount;
+
+	private long coalescedEventCount;
+
+	private ThreadFactory threadFactory;
+
+	private Thread worker; // null until started
+
+	private boolean stopped;
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+	public static final ThreadFactory DEFAULT_THREAD_FACTORY = new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "QueuedInputEventListener");
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	public QueuedInputEventListener(InputEventListener listener, InputEventQueuePolicy queuePolicy) {
+		this(listener, queuePolicy, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	public QueuedInputEventListener(InputEventListener listener, InputEventQueuePolicy queuePolicy,
+			int queueCapacity) {
+		this(listener, queuePolicy, queueCapacity, DEFAULT_THREAD_FACTORY);
+	}
+
+	public QueuedInputEventListener(InputEventListener listener, InputEventQueuePolicy queuePolicy, int queueCapacity,
+			ThreadFactory threadFactory) {
+		if (queueCapacity <= 0)
+			throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+		this.listener = listener;
+		this.queuePolicy = queuePolicy;
+		this.threadFactory = threadFactory;
+		this.queue = new InputEvent[queueCapacity];
+		for (int i = 0; i < queueCapacity; i++) {
+			queue[i] = new InputEvent(null, 0f);
+		}
+	}
+
+	/**
+	 * Starts the thread delivering the queued events to the delegate listener. Has no effect when already started
+	 */
+	public synchronized void start() {
+		if (worker == null && !isStopped()) {
+			worker = threadFactory.newThread(new Runnable() {
+
+				@Override
+				public void run() {
+					deliverEvents();
+				}
+			});
+			worker.start();
+		}
+	}
+
+	@Override
+	public synchronized void receiveInputEvent(InputEvent event) {
+		if (isStopped())
+			return;
+		receivedEventCount++;
+		if (InputEventQueuePolicy.COALESCE_LATEST_PER_INPUT.equals(getQueuePolicy()) && event.getInput().isAnalog()) {
+			int offset = getQueueOffsetOfSameInput(event);
+			if (offset >= 0) {
+				moveToTail(offset, event);
+				coalescedEventCount++;
+				return;
+			}
+		}
+		while (getQueueDepth() == getQueueCapacity() && !isStopped()) {
+			if (InputEventQueuePolicy.BLOCK.equals(getQueuePolicy())) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// re-evaluate queue depth
+				}
+			} else {
+				queueHead = (queueHead + 1) % getQueueCapacity();
+				queueDepth--;
+				droppedEventCount++;
+			}
+		}
+		if (!isStopped()) {
+			queue[(queueHead + queueDepth) % getQueueCapacity()].assign(event);
+			queueDepth++;
+			maximumQueueDepth = Math.max(maximumQueueDepth, queueDepth);
+			notifyAll();
+		}
+	}
+
+	private int getQueueOffsetOfSameInput(InputEvent event) {
+		Input input = event.getInput();
+		for (int i = queueDepth - 1; i >= 0; i--) {
+			if (input.equals(queue[(queueHead + i) % getQueueCapacity()].getInput()))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Replaces the queued event at the given offset by the given event at the tail of the queue, shifting the events
+	 * in between forward so that they keep their order
+	 */
+	private void moveToTail(int offset, InputEvent event) {
+		int capacity = getQueueCapacity();
+		for (int i = offset; i < queueDepth - 1; i++) {
+			queue[(queueHead + i) % capacity].assign(queue[(queueHead + i + 1) % capacity]);
+		}
+		queue[(queueHead + queueDepth - 1) % capacity].assign(event);
+	}
+
+	private void deliverEvents() {
+		InputEvent event = new InputEvent(null, 0f);
+		while (takeEvent(event)) {
+			try {
+				getListener().receiveInputEvent(event);
+			} catch (RuntimeException e) {
+				log("Listener failed: " + e); // keep serving subsequent events
+			}
+		}
+	}
+
+	private synchronized boolean takeEvent(InputEvent event) {
+		while (queueDepth == 0 && !isStopped()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				// re-evaluate queue depth
+			}
+		}
+		if (isStopped())
+			return false;
+		event.assign(queue[queueHead]);
+		queueHead = (queueHead + 1) % getQueueCapacity();
+		queueDepth--;
+		notifyAll();
+		return true;
+	}
+
+	/**
+	 * Stops the delivery of events. Any queued events are discarded
+	 */
+	public synchronized void stop() {
+		stopped = true;
+		notifyAll();
+	}
+
+	private void log(String message) {
+		System.out.println(this.getClass().getSimpleName() + " - " + message);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("QueuedInputEventListener [listener=");
+		builder.append(getListener());
+		builder.append(", policy=");
+		builder.append(getQueuePolicy());
+		builder.append(", depth=");
+		builder.append(getQueueDepth());
+		builder.append("/");
+		builder.append(getQueueCapacity());
+		builder.append(", dropped=");
+		builder.append(getDroppedEventCount());
+		builder.append(", coalesced=");
+		builder.append(getCoalescedEventCount());
+		builder.append("]");
+		return builder.toString();
+	}
+
+	public InputEventListener getListener() {
+		return listener;
+	}
+
+	public InputEventQueuePolicy getQueuePolicy() {
+		return queuePolicy;
+	}
+
+	public int getQueueCapacity() {
+		return queue.length;
+	}
+
+	public synchronized int getQueueDepth() {
+		return queueDepth;
+	}
+
+	public synchronized int getMaximumQueueDepth() {
+		return maximumQueueDepth;
+	}
+
+	public synchronized long getReceivedEventCount() {
+		return receivedEventCount;
+	}
+
+	public synchronized long getDroppedEventCount() {
+		return droppedEventCount;
+	}
+
+	public synchronized long getCoalescedEventCount() {
+		return coalescedEventCount;
+	}
+
+	public synchronized Thread getWorker() {
+		return worker;
+	}
+
+	public synchronized boolean isStopped() {
+		return stopped;
+	}
+
+}
\ No newline at end of file
@@ -2,6 +2,8 @@ package org.maia.io.inputdevice.controller;
 
 import org.maia.io.inputdevice.DigitalInputValueRange;
 import org.maia.io.inputdevice.InputEvent;
+import org.maia.io.inputdevice.InputLatencyRecorder;
+import org.maia.io.inputdevice.InputLatencyStage;
 import org.maia.io.inputdevice.InputValueRange;
 
 public class GatedInputCommandProducer extends InputCommandProducer {
@@ -52,6 +54,7 @@ public class GatedInputCommandProducer extends InputCommandProducer {
 		setFiring(firing);
 		if (wasFiring ^ firing) {
 			if (firing) {
+				recordFiringLatency(event, gatedController);
 				gatedController.fireInputCommand(getCommand());
 			} else {
 				gatedController.releaseInputCommand(getCommand());
@@ -68,6 +71,7 @@ public class GatedInputCommandProducer extends InputCommandProducer {
 				// fire
 				setFiring(true);
 				setFastReleasingPivotValue(Math.max(value - getFastReleasingDeltaValue(), iniPivot));
+				recordFiringLatency(event, gatedController);
 				gatedController.fireInputCommand(getCommand());
 			} else {
 				setFastReleasingPivotValue(Math
@@ -88,6 +92,10 @@ public class GatedInputCommandProducer extends InputCommandProducer {
 		}
 	}
 
+	private void recordFiringLatency(InputEvent event, GatedInputController gatedController) {
+		InputLatencyRecorder.getInstance().record(InputLatencyStage.COMMAND_FIRE, event, gatedController);
+	}
+
 	@Override
 	public synchronized void exit(InputController controller) {
 		super.exit(controller);
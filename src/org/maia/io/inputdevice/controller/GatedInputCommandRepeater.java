@@ -31,6 +31,13 @@ public class GatedInputCommandRepeater {
 		}
 	}
 
+	/**
+	 * Returns the number of commands currently scheduled for auto-repeat
+	 */
+	public synchronized int getScheduledEventCount() {
+		return getScheduledEvents().size();
+	}
+
 	private void updateDispatcher() {
 		ScheduledEventDispatcher dispatcher = getScheduledEventDispatcher();
 		if (dispatcher == null) {
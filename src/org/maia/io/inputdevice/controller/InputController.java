@@ -9,6 +9,8 @@ import org.maia.io.inputdevice.InputDevice;
 import org.maia.io.inputdevice.InputEvent;
 import org.maia.io.inputdevice.InputEventGateway;
 import org.maia.io.inputdevice.InputEventListener;
+import org.maia.io.inputdevice.InputLatencyRecorder;
+import org.maia.io.inputdevice.InputLatencyStage;
 import org.maia.util.GenericListenerList;
 import org.maia.util.SystemUtils;
 
@@ -156,6 +158,7 @@ public class InputController implements InputEventListener {
 		InputControllerContext context = getCurrentContext();
 		if (context != null) {
 			context.process(event, this);
+			InputLatencyRecorder.getInstance().record(InputLatencyStage.CONTEXT_PROCESSING, event, this);
 		}
 	}
 
@@ -180,6 +183,7 @@ public class InputController implements InputEventListener {
 		if (hasCurrentContext()) {
 			getCurrentContext().exit(this);
 		}
+		InputLatencyRecorder.getInstance().removeController(this);
 	}
 
 	@Override
@@ -53,11 +53,11 @@ public class InputControllerDataLogger {
 		if (!events.isEmpty()) {
 			NumberFormat nf = NumberFormat.getNumberInstance();
 			Map<Input, Long> previousInputTime = new HashMap<>();
-			long t0 = events.get(0).getCreationTime();
+			long t0 = events.get(0).getCreationTimeNanos() / 1000000L;
 			for (InputEvent event : events) {
 				Input input = event.getInput();
 				// Relative time
-				long t = event.getCreationTime();
+				long t = event.getCreationTimeNanos() / 1000000L;
 				long tr = t - t0;
 				long trSec = Math.floorDiv(tr, 1000);
 				long trMs = tr - trSec * 1000;
@@ -217,14 +217,12 @@ public class InputControllerDataLogger {
 
 		@Override
 		public int compare(InputEvent e1, InputEvent e2) {
-			long t1 = e1.getCreationTime();
-			long t2 = e2.getCreationTime();
-			if (t1 < t2) {
-				return -1;
-			} else if (t1 > t2) {
-				return 1;
+			long t1 = e1.getCreationTimeNanos();
+			long t2 = e2.getCreationTimeNanos();
+			if (t1 != t2) {
+				return t1 - t2 < 0 ? -1 : 1;
 			} else {
-				return 0;
+				return Long.compare(e1.getSequenceNumber(), e2.getSequenceNumber());
 			}
 		}
 
@@ -9,6 +9,8 @@ import java.awt.Insets;
 import java.awt.Point;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -23,6 +25,7 @@ import javax.swing.border.Border;
 
 import org.maia.io.inputdevice.InputDevice;
 import org.maia.io.inputdevice.InputDeviceFilter;
+import org.maia.io.inputdevice.InputDeviceHotplugListener;
 import org.maia.io.inputdevice.InputEventGateway;
 
 @SuppressWarnings("serial")
@@ -38,6 +41,8 @@ public class JDevicesBadge extends JButton {
 
 	private int deviceCount;
 
+	private HotplugHandler hotplugHandler;
+
 	public JDevicesBadge() {
 		this(InputDeviceFilter.ACCEPT_ALL);
 	}
@@ -46,11 +51,13 @@ public class JDevicesBadge extends JButton {
 		super(JInteractiveBuilderIcons.controllerIcon);
 		this.deviceFilter = deviceFilter;
 		this.toolTipController = new ToolTipController();
+		this.hotplugHandler = new HotplugHandler();
 		updateDevices();
 		setContentAreaFilled(false);
 		setFocusPainted(false);
 		setBorder(new DeviceCountBorder());
 		addMouseListener(getToolTipController());
+		InputEventGateway.getInstance().registerHotplugListener(getHotplugHandler());
 	}
 
 	public void refresh() {
@@ -60,6 +67,7 @@ public class JDevicesBadge extends JButton {
 	}
 
 	public void dispose() {
+		InputEventGateway.getInstance().unregisterHotplugListener(getHotplugHandler());
 		getToolTipController().hideToolTip();
 	}
 
@@ -79,6 +87,29 @@ public class JDevicesBadge extends JButton {
 		setDeviceCount(n);
 	}
 
+	private void addDevice(InputDevice device) {
+		ToolTip toolTip = getToolTipController().getToolTip();
+		InputDeviceFilter filter = getDeviceFilter();
+		if (filter == null || filter.accept(device)) {
+			toolTip.addDevice(device, true);
+			setDeviceCount(getDeviceCount() + 1);
+		} else if (isShowDevicesExcludedByFilter()) {
+			toolTip.addDevice(device, false);
+		}
+		getToolTipController().updateToolTip();
+		repaint();
+	}
+
+	private void removeDevice(InputDevice device) {
+		ToolTip toolTip = getToolTipController().getToolTip();
+		InputDeviceFilter filter = getDeviceFilter();
+		if (toolTip.removeDevice(device) && (filter == null || filter.accept(device))) {
+			setDeviceCount(getDeviceCount() - 1);
+		}
+		getToolTipController().updateToolTip();
+		repaint();
+	}
+
 	public InputDeviceFilter getDeviceFilter() {
 		return deviceFilter;
 	}
@@ -95,6 +126,10 @@ public class JDevicesBadge extends JButton {
 		return toolTipController;
 	}
 
+	private HotplugHandler getHotplugHandler() {
+		return hotplugHandler;
+	}
+
 	public boolean isShowDevicesExcludedByFilter() {
 		return showDevicesExcludedByFilter;
 	}
@@ -158,6 +193,35 @@ public class JDevicesBadge extends JButton {
 
 	}
 
+	private class HotplugHandler implements InputDeviceHotplugListener {
+
+		public HotplugHandler() {
+		}
+
+		@Override
+		public void inputDeviceAdded(final InputDevice device) {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					addDevice(device);
+				}
+			});
+		}
+
+		@Override
+		public void inputDeviceRemoved(final InputDevice device) {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					removeDevice(device);
+				}
+			});
+		}
+
+	}
+
 	private class ToolTipController extends MouseAdapter {
 
 		private JWindow toolTipWindow;
@@ -187,6 +251,17 @@ public class JDevicesBadge extends JButton {
 			}
 		}
 
+		public void updateToolTip() {
+			JWindow window = getToolTipWindow();
+			if (window != null) {
+				if (getToolTip().isEmpty()) {
+					hideToolTip();
+				} else {
+					window.pack();
+				}
+			}
+		}
+
 		public void hideToolTip() {
 			JWindow window = getToolTipWindow();
 			if (window != null) {
@@ -239,20 +314,36 @@ public class JDevicesBadge extends JButton {
 
 		private Color foregroundDisabledColor = new Color(50, 50, 50, 100);
 
+		private Map<InputDevice, JComponent> deviceComponents;
+
 		public ToolTip() {
 			super(BoxLayout.Y_AXIS);
 			setOpaque(true);
 			setBackground(backgroundColor);
 			setBorder(BorderFactory.createCompoundBorder(BorderFactory.createLineBorder(outlineColor),
 					BorderFactory.createEmptyBorder(4, 4, 4, 4)));
+			this.deviceComponents = new HashMap<InputDevice, JComponent>();
 		}
 
 		public void clear() {
 			removeAll();
+			deviceComponents.clear();
 		}
 
 		public void addDevice(InputDevice device, boolean enabled) {
-			add(createDeviceToolTipComponent(device, enabled));
+			JComponent comp = createDeviceToolTipComponent(device, enabled);
+			deviceComponents.put(device, comp);
+			add(comp);
+		}
+
+		public boolean removeDevice(InputDevice device) {
+			JComponent comp = deviceComponents.remove(device);
+			if (comp != null) {
+				remove(comp);
+				revalidate();
+				return true;
+			}
+			return false;
 		}
 
 		private JComponent createDeviceToolTipComponent(InputDevice device, boolean enabled) {
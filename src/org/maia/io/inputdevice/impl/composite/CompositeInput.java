@@ -0,0 +1,42 @@
+package org.maia.io.inputdevice.impl.composite;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputValueRange;
+
+/**
+ * Input of a child event source, exposed by a composite event source as part of a {@link CompositeInputDevice}
+ */
+public class CompositeInput extends Input {
+
+	private Input childInput;
+
+	CompositeInput(CompositeInputDevice device, Input childInput) {
+		super(device, childInput.getName(), childInput.getIdentifier());
+		this.childInput = childInput;
+	}
+
+	@Override
+	public boolean isAnalog() {
+		return getChildInput().isAnalog();
+	}
+
+	@Override
+	public boolean isRelative() {
+		return getChildInput().isRelative();
+	}
+
+	@Override
+	public InputValueRange getValueRange() {
+		return getChildInput().getValueRange();
+	}
+
+	@Override
+	public CompositeInputDevice getDevice() {
+		return (CompositeInputDevice) super.getDevice();
+	}
+
+	public Input getChildInput() {
+		return childInput;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package org.maia.io.inputdevice.impl.composite;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputDevice;
+
+/**
+ * Device of a child event source, exposed by a composite event source under a namespaced identifier
+ * 
+ * @see CompositeInputEventSource
+ */
+public class CompositeInputDevice extends InputDevice {
+
+	private String namespace;
+
+	private InputDevice childDevice;
+
+	private Map<Input, CompositeInput> inputMap; // by input of the child device
+
+	CompositeInputDevice(String namespace, InputDevice childDevice) {
+		super(childDevice.getName(), deriveIdentifier(namespace, childDevice));
+		this.namespace = namespace;
+		this.childDevice = childDevice;
+	}
+
+	static String deriveIdentifier(String namespace, InputDevice childDevice) {
+		return namespace + CompositeInputEventSource.NAMESPACE_SEPARATOR + childDevice.getIdentifier();
+	}
+
+	@Override
+	protected List<Input> enumerateInputs() {
+		List<Input> childInputs = getChildDevice().getInputs();
+		List<Input> inputs = new Vector<Input>(childInputs.size());
+		Map<Input, CompositeInput> inputMap = new HashMap<Input, CompositeInput>(childInputs.size());
+		for (Input childInput : childInputs) {
+			CompositeInput input = new CompositeInput(this, childInput);
+			inputs.add(input);
+			inputMap.put(childInput, input);
+		}
+		this.inputMap = inputMap;
+		return inputs;
+	}
+
+	CompositeInput getInput(Input childInput) {
+		getInputs(); // makes sure inputs are enumerated
+		return inputMap.get(childInput);
+	}
+
+	@Override
+	public String getTypeString() {
+		return getChildDevice().getTypeString();
+	}
+
+	@Override
+	public boolean isTypeMouse() {
+		return getChildDevice().isTypeMouse();
+	}
+
+	@Override
+	public boolean isTypeKeyboard() {
+		return getChildDevice().isTypeKeyboard();
+	}
+
+	@Override
+	public boolean isTypeStick() {
+		return getChildDevice().isTypeStick();
+	}
+
+	@Override
+	public boolean isTypeGamepad() {
+		return getChildDevice().isTypeGamepad();
+	}
+
+	@Override
+	public boolean isTypeUnknown() {
+		return getChildDevice().isTypeUnknown();
+	}
+
+	public String getNamespace() {
+		return namespace;
+	}
+
+	public InputDevice getChildDevice() {
+		return childDevice;
+	}
+
+}
\ No newline at end of file
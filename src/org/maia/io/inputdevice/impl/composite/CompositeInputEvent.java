@@ -0,0 +1,19 @@
+package org.maia.io.inputdevice.impl.composite;
+
+import org.maia.io.inputdevice.InputEvent;
+
+/**
+ * Reusable event carrying the properties of a child event, but referring to the corresponding composite input
+ */
+class CompositeInputEvent extends InputEvent {
+
+	public CompositeInputEvent() {
+		super(null, 0f);
+	}
+
+	public void wrap(InputEvent childEvent, CompositeInput input) {
+		assign(childEvent);
+		setInput(input);
+	}
+
+}
\ No newline at end of file
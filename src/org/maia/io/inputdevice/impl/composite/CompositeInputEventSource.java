@@ -0,0 +1,376 @@
+package org.maia.io.inputdevice.impl.composite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputDeviceFilter;
+import org.maia.io.inputdevice.InputDeviceState;
+import org.maia.io.inputdevice.InputEvent;
+import org.maia.io.inputdevice.InputEventSource;
+import org.maia.io.inputdevice.InputFilter;
+
+/**
+ * Event source combining several child event sources, so that they can be active at the same time
+ * <p>
+ * Each child source is registered under a namespace, which prefixes the identifiers of its devices. The events of all
+ * child sources are merged into a single timeline ordered by their creation time, and are issued new sequence numbers
+ * by this source.
+ * </p>
+ * <p>
+ * Child sources are polled one after the other, or in parallel when <em>parallelPolling</em> is enabled.
+ * </p>
+ */
+public class CompositeInputEventSource extends InputEventSource {
+
+	private List<ChildEventSource> children;
+
+	private boolean parallelPolling; // when true, child sources are polled concurrently
+
+	private ExecutorService pollExecutor; // only when polling in parallel
+
+	private List<InputEvent> events; // reusable collection of events
+
+	private List<CompositeInputEvent> eventPool; // reusable events
+
+	private int[] mergePositions; // next event index per child during the merge
+
+	public static final String NAMESPACE_SEPARATOR = ":";
+
+	public CompositeInputEventSource() {
+		this(InputDeviceFilter.ACCEPT_ALL);
+	}
+
+	public CompositeInputEventSource(InputDeviceFilter deviceFilter) {
+		this(deviceFilter, InputFilter.ACCEPT_ALL);
+	}
+
+	public CompositeInputEventSource(InputDeviceFilter deviceFilter, InputFilter inputFilter) {
+		super(deviceFilter, inputFilter);
+		this.children = new Vector<ChildEventSource>();
+		this.events = new ArrayList<InputEvent>();
+		this.eventPool = new ArrayList<CompositeInputEvent>();
+		this.mergePositions = new int[0];
+	}
+
+	/**
+	 * Adds a child event source
+	 * 
+	 * @param namespace
+	 *            The namespace of the source, prefixing the identifiers of its devices
+	 * @param eventSource
+	 *            The child event source
+	 * @throws IllegalArgumentException
+	 *             When the namespace is empty, contains the namespace separator or is already in use
+	 */
+	public synchronized void addEventSource(String namespace, InputEventSource eventSource) {
+		if (namespace == null || namespace.isEmpty())
+			throw new IllegalArgumentException("Must specify a non-empty namespace");
+		if (namespace.contains(NAMESPACE_SEPARATOR))
+			throw new IllegalArgumentException("Namespace cannot contain '" + NAMESPACE_SEPARATOR + "': " + namespace);
+		if (getChild(namespace) != null)
+			throw new IllegalArgumentException("Namespace already in use: " + namespace);
+		if (eventSource == null)
+			throw new NullPointerException("Event source cannot be null");
+		getChildren().add(new ChildEventSource(namespace, eventSource));
+		setMergePositions(new int[getChildren().size()]);
+		setKnownInputDevices(getInputDevices());
+	}
+
+	public synchronized void removeEventSource(String namespace) {
+		ChildEventSource child = getChild(namespace);
+		if (child != null) {
+			getChildren().remove(child);
+			setMergePositions(new int[getChildren().size()]);
+			setKnownInputDevices(getInputDevices());
+		}
+	}
+
+	public synchronized InputEventSource getEventSource(String namespace) {
+		ChildEventSource child = getChild(namespace);
+		return child != null ? child.getEventSource() : null;
+	}
+
+	public synchronized List<String> getNamespaces() {
+		List<String> namespaces = new Vector<String>(getChildren().size());
+		for (ChildEventSource child : getChildren()) {
+			namespaces.add(child.getNamespace());
+		}
+		return namespaces;
+	}
+
+	private ChildEventSource getChild(String namespace) {
+		for (ChildEventSource child : getChildren()) {
+			if (child.getNamespace().equals(namespace))
+				return child;
+		}
+		return null;
+	}
+
+	@Override
+	public InputFilter createExplicitUserGestureInputFilter() {
+		final Map<String, InputFilter> childFilters = new HashMap<String, InputFilter>();
+		synchronized (this) {
+			for (ChildEventSource child : getChildren()) {
+				childFilters.put(child.getNamespace(), child.getEventSource().createExplicitUserGestureInputFilter());
+			}
+		}
+		return new InputFilter() {
+
+			@Override
+			public boolean accept(Input input) {
+				if (input instanceof CompositeInput) {
+					CompositeInput compositeInput = (CompositeInput) input;
+					InputFilter childFilter = childFilters.get(compositeInput.getDevice().getNamespace());
+					return childFilter == null || childFilter.accept(compositeInput.getChildInput());
+				}
+				return true;
+			}
+
+			@Override
+			public boolean isStable() {
+				for (InputFilter childFilter : childFilters.values()) {
+					if (!childFilter.isStable())
+						return false;
+				}
+				return true;
+			}
+		};
+	}
+
+	@Override
+	public synchronized List<InputEvent> pollEvents() {
+		beginPollCycle();
+		List<InputEvent> events = getEvents();
+		events.clear();
+		if (isParallelPolling() && getChildren().size() > 1) {
+			pollChildrenInParallel();
+		} else {
+			for (ChildEventSource child : getChildren()) {
+				child.poll();
+			}
+		}
+		mergeChildEvents(events);
+		return events;
+	}
+
+	private void pollChildrenInParallel() {
+		try {
+			for (Future<Object> future : getPollExecutor().invokeAll(getChildren())) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Polling of a child event source failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Merges the events of all children into a single list, ordered by creation time. The events of every child are
+	 * assumed to be in order already
+	 */
+	private void mergeChildEvents(List<InputEvent> events) {
+		List<ChildEventSource> children = getChildren();
+		int[] positions = getMergePositions();
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = 0;
+		}
+		int poolIndex = 0;
+		while (true) {
+			int earliestChild = -1;
+			long earliestTime = 0L;
+			for (int i = 0; i < positions.length; i++) {
+				List<InputEvent> childEvents = children.get(i).getPolledEvents();
+				if (positions[i] < childEvents.size()) {
+					long time = childEvents.get(positions[i]).getCreationTimeNanos();
+					if (earliestChild < 0 || time - earliestTime < 0L) {
+						earliestChild = i;
+						earliestTime = time;
+					}
+				}
+			}
+			if (earliestChild < 0)
+				break;
+			ChildEventSource child = children.get(earliestChild);
+			InputEvent childEvent = child.getPolledEvents().get(positions[earliestChild]++);
+			CompositeInput input = child.mapToInput(childEvent.getInput());
+			if (input != null && getDeviceFilter().accept(input.getDevice()) && getInputFilter().accept(input)) {
+				if (poolIndex == getEventPool().size()) {
+					getEventPool().add(new CompositeInputEvent());
+				}
+				CompositeInputEvent event = getEventPool().get(poolIndex++);
+				event.wrap(childEvent, input);
+				stampEvent(event);
+				events.add(event);
+			}
+		}
+	}
+
+	@Override
+	public void scanInputDevices() {
+		List<ChildEventSource> children = null;
+		synchronized (this) {
+			children = new Vector<ChildEventSource>(getChildren());
+		}
+		for (ChildEventSource child : children) {
+			child.getEventSource().scanInputDevices();
+		}
+		updateKnownInputDevices(getInputDevices());
+	}
+
+	@Override
+	public synchronized List<InputDevice> getInputDevices() {
+		List<InputDevice> devices = new Vector<InputDevice>();
+		for (ChildEventSource child : getChildren()) {
+			devices.addAll(child.getInputDevices());
+		}
+		return devices;
+	}
+
+	/**
+	 * Returns the state of a device as maintained by its child source. The state is indexed by the ordinals of the
+	 * child device's inputs, which coincide with those of the composite device
+	 */
+	@Override
+	public InputDeviceState getInputDeviceState(InputDevice device) {
+		if (device instanceof CompositeInputDevice) {
+			CompositeInputDevice compositeDevice = (CompositeInputDevice) device;
+			InputEventSource childSource = getEventSource(compositeDevice.getNamespace());
+			if (childSource != null) {
+				return childSource.getInputDeviceState(compositeDevice.getChildDevice());
+			}
+		}
+		return null;
+	}
+
+	private synchronized ExecutorService getPollExecutor() {
+		if (pollExecutor == null) {
+			pollExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "CompositeInputEventSourcePoller");
+					thread.setPriority(Thread.MAX_PRIORITY);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return pollExecutor;
+	}
+
+	private List<ChildEventSource> getChildren() {
+		return children;
+	}
+
+	public boolean isParallelPolling() {
+		return parallelPolling;
+	}
+
+	public synchronized void setParallelPolling(boolean parallelPolling) {
+		this.parallelPolling = parallelPolling;
+		if (!parallelPolling && pollExecutor != null) {
+			pollExecutor.shutdown();
+			pollExecutor = null;
+		}
+	}
+
+	private List<InputEvent> getEvents() {
+		return events;
+	}
+
+	private List<CompositeInputEvent> getEventPool() {
+		return eventPool;
+	}
+
+	private int[] getMergePositions() {
+		return mergePositions;
+	}
+
+	private void setMergePositions(int[] positions) {
+		this.mergePositions = positions;
+	}
+
+	private static class ChildEventSource implements Callable<Object> {
+
+		private String namespace;
+
+		private InputEventSource eventSource;
+
+		private List<InputEvent> polledEvents; // events of the last poll, valid until the next poll
+
+		private Map<String, CompositeInputDevice> deviceMap; // by identifier of the child device
+
+		public ChildEventSource(String namespace, InputEventSource eventSource) {
+			this.namespace = namespace;
+			this.eventSource = eventSource;
+			this.polledEvents = new ArrayList<InputEvent>();
+			this.deviceMap = new HashMap<String, CompositeInputDevice>();
+		}
+
+		@Override
+		public Object call() {
+			poll();
+			return null;
+		}
+
+		public void poll() {
+			List<InputEvent> events = getPolledEvents();
+			events.clear();
+			InputEventSource source = getEventSource();
+			synchronized (source) {
+				List<InputEvent> childEvents = source.pollEvents();
+				for (int i = 0; i < childEvents.size(); i++) {
+					events.add(childEvents.get(i));
+				}
+			}
+		}
+
+		public synchronized List<InputDevice> getInputDevices() {
+			List<InputDevice> childDevices = getEventSource().getInputDevices();
+			List<InputDevice> devices = new Vector<InputDevice>(childDevices.size());
+			for (InputDevice childDevice : childDevices) {
+				devices.add(mapToDevice(childDevice));
+			}
+			return devices;
+		}
+
+		public CompositeInput mapToInput(Input childInput) {
+			return mapToDevice(childInput.getDevice()).getInput(childInput);
+		}
+
+		private synchronized CompositeInputDevice mapToDevice(InputDevice childDevice) {
+			CompositeInputDevice device = deviceMap.get(childDevice.getIdentifier());
+			if (device == null || device.getChildDevice() != childDevice) {
+				device = new CompositeInputDevice(getNamespace(), childDevice);
+				deviceMap.put(childDevice.getIdentifier(), device);
+			}
+			return device;
+		}
+
+		public String getNamespace() {
+			return namespace;
+		}
+
+		public InputEventSource getEventSource() {
+			return eventSource;
+		}
+
+		public List<InputEvent> getPolledEvents() {
+			return polledEvents;
+		}
+
+	}
+
+}
\ No newline at end of file
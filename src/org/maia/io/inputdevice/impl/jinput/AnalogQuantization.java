@@ -0,0 +1,34 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+/**
+ * Coarsens the values of an analog component before they are compared with the previous value, so that changes too
+ * small to matter to the consumers do not cause events
+ * <p>
+ * An instance holds configuration only and can be shared by many components.
+ * </p>
+ */
+public abstract class AnalogQuantization {
+
+	/**
+	 * Leaves values as they are, to exempt an input from the quantization that a source applies by default
+	 */
+	public static final AnalogQuantization NONE = new AnalogQuantization() {
+
+		@Override
+		public float quantize(float value, float previousValue) {
+			return value;
+		}
+	};
+
+	/**
+	 * Quantizes a value of a component
+	 * 
+	 * @param value
+	 *            The value read from the component
+	 * @param previousValue
+	 *            The value of the previous event of the component
+	 * @return The quantized value. When it equals <code>previousValue</code>, no event follows
+	 */
+	public abstract float quantize(float value, float previousValue);
+
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+/**
+ * Smooths the values of an analog component over time, to suppress the jitter of cheap devices around their centre
+ * and near thresholds
+ * <p>
+ * An instance holds configuration only and can be shared by many components. The state of each component is kept in
+ * an {@link AnalogSmoothingState}, so smoothing does not allocate. The smoothed value is handed out in steps of at
+ * least the <em>minimum change</em>, so that jitter that survives smoothing does not cause events. When the input
+ * comes to rest within the minimum change of the smoothed value, the output settles on the input value exactly.
+ * </p>
+ */
+public abstract class AnalogSmoothing {
+
+	private float minimumChange;
+
+	public static final float DEFAULT_MINIMUM_CHANGE = 0.01f;
+
+	/**
+	 * Leaves values as they are, to exempt an input from the smoothing that a source applies by default
+	 */
+	public static final AnalogSmoothing NONE = new AnalogSmoothing(0f) {
+
+		@Override
+		public float smooth(AnalogSmoothingState state, int index, float value, long timeNanos) {
+			return value;
+		}
+
+		@Override
+		protected float computeSmoothedValue(AnalogSmoothingState state, int index, float value,
+				float elapsedSeconds) {
+			return value;
+		}
+	};
+
+	protected AnalogSmoothing() {
+		this(DEFAULT_MINIMUM_CHANGE);
+	}
+
+	protected AnalogSmoothing(float minimumChange) {
+		if (minimumChange < 0)
+			throw new IllegalArgumentException("Minimum change cannot be negative: " + minimumChange);
+		this.minimumChange = minimumChange;
+	}
+
+	/**
+	 * Feeds a sample of a component and returns the value to hand out
+	 * 
+	 * @param state
+	 *            The smoothing state of the controller
+	 * @param index
+	 *            The position of the component within the controller
+	 * @param value
+	 *            The sampled value
+	 * @param timeNanos
+	 *            The time of the sample, as given by <code>System.nanoTime()</code>
+	 * @return The smoothed value, which equals the previous output unless it moved by at least the minimum change
+	 */
+	public float smooth(AnalogSmoothingState state, int index, float value, long timeNanos) {
+		if (!state.isInitialized(index)) {
+			state.reset(index, value, timeNanos);
+			return value;
+		}
+		float elapsedSeconds = (timeNanos - state.getTimeNanos(index)) / 1000000000f;
+		if (elapsedSeconds <= 0f)
+			return state.getOutputValue(index);
+		float smoothedValue = computeSmoothedValue(state, index, value, elapsedSeconds);
+		boolean atRest = value == state.getInputValue(index);
+		if (atRest && Math.abs(value - smoothedValue) < getMinimumChange()) {
+			smoothedValue = value;
+		}
+		state.setInputValue(index, value);
+		state.setSmoothedValue(index, smoothedValue);
+		state.setTimeNanos(index, timeNanos);
+		float output = state.getOutputValue(index);
+		if (Math.abs(smoothedValue - output) >= getMinimumChange() || (atRest && smoothedValue == value)) {
+			output = smoothedValue;
+			state.setOutputValue(index, output);
+		}
+		return output;
+	}
+
+	/**
+	 * Computes the next smoothed value of a component. Implementations may update the derivative in the state, the
+	 * other properties of the state are updated by the caller
+	 * 
+	 * @param state
+	 *            The smoothing state, holding the previous smoothed value
+	 * @param index
+	 *            The position of the component within the controller
+	 * @param value
+	 *            The sampled value
+	 * @param elapsedSeconds
+	 *            The time since the previous sample, always positive
+	 * @return The smoothed value
+	 */
+	protected abstract float computeSmoothedValue(AnalogSmoothingState state, int index, float value,
+			float elapsedSeconds);
+
+	/**
+	 * Returns the smoothing factor of a first-order low-pass filter with the given cutoff frequency
+	 */
+	protected static float getSmoothingFactor(float cutoffFrequency, float elapsedSeconds) {
+		float timeConstant = 1f / (2f * (float) Math.PI * cutoffFrequency);
+		return 1f / (1f + timeConstant / elapsedSeconds);
+	}
+
+	public float getMinimumChange() {
+		return minimumChange;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+/**
+ * State of the analog smoothing of the components of one controller, held in primitive arrays indexed by component
+ * position
+ * 
+ * @see AnalogSmoothing
+ */
+public class AnalogSmoothingState {
+
+	private boolean[] initialized; // when false, the next sample starts the smoothing afresh
+
+	private float[] inputValues; // last sample, before smoothing
+
+	private float[] smoothedValues;
+
+	private float[] derivatives; // rate of change of the smoothed value, per second
+
+	private long[] timesNanos; // time of the last sample
+
+	private float[] outputValues; // last value handed out, moves in steps of at least the minimum change
+
+	public AnalogSmoothingState(int size) {
+		this.initialized = new boolean[size];
+		this.inputValues = new float[size];
+		this.smoothedValues = new float[size];
+		this.derivatives = new float[size];
+		this.timesNanos = new long[size];
+		this.outputValues = new float[size];
+	}
+
+	/**
+	 * Starts the smoothing of a component afresh from the given sample
+	 */
+	public void reset(int index, float value, long timeNanos) {
+		initialized[index] = true;
+		inputValues[index] = value;
+		smoothedValues[index] = value;
+		derivatives[index] = 0f;
+		timesNanos[index] = timeNanos;
+		outputValues[index] = value;
+	}
+
+	public int getSize() {
+		return initialized.length;
+	}
+
+	public boolean isInitialized(int index) {
+		return initialized[index];
+	}
+
+	public float getInputValue(int index) {
+		return inputValues[index];
+	}
+
+	public void setInputValue(int index, float value) {
+		inputValues[index] = value;
+	}
+
+	public float getSmoothedValue(int index) {
+		return smoothedValues[index];
+	}
+
+	public void setSmoothedValue(int index, float value) {
+		smoothedValues[index] = value;
+	}
+
+	public float getDerivative(int index) {
+		return derivatives[index];
+	}
+
+	public void setDerivative(int index, float derivative) {
+		derivatives[index] = derivative;
+	}
+
+	public long getTimeNanos(int index) {
+		return timesNanos[index];
+	}
+
+	public void setTimeNanos(int index, long timeNanos) {
+		timesNanos[index] = timeNanos;
+	}
+
+	public float getOutputValue(int index) {
+		return outputValues[index];
+	}
+
+	public void setOutputValue(int index, float value) {
+		outputValues[index] = value;
+	}
+
+}
\ No newline at end of file
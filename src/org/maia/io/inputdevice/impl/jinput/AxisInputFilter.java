@@ -14,6 +14,8 @@ public class AxisInputFilter implements InputFilter {
 
 	private List<Axis> axis;
 
+	private boolean frozen; // no more axis can be added
+
 	public static Axis SLIDER_AXIS = Axis.SLIDER;
 
 	public static Axis[] ROTATIONAL_AXIS = new Axis[] { Axis.RX, Axis.RY, Axis.RZ };
@@ -33,6 +35,12 @@ public class AxisInputFilter implements InputFilter {
 		this.axis = new Vector<Axis>();
 	}
 
+	/**
+	 * Creates a filter that excludes the axis not normally moved on purpose by a user. More axis can be added until the
+	 * filter is frozen
+	 * 
+	 * @see #freeze()
+	 */
 	public static AxisInputFilter createExplicitUserGestureFilter() {
 		return createExclusiveFilter(AxisInputFilter.SLIDER_AXIS).addAxis(AxisInputFilter.ROTATIONAL_AXIS)
 				.addAxis(AxisInputFilter.FORCE_AXIS).addAxis(AxisInputFilter.VELOCITY_AXIS)
@@ -52,6 +60,8 @@ public class AxisInputFilter implements InputFilter {
 	}
 
 	public AxisInputFilter addAxis(Axis axis) {
+		if (isFrozen())
+			throw new IllegalStateException("Cannot add axis to a frozen filter");
 		getAxis().add(axis);
 		return this;
 	}
@@ -72,6 +82,25 @@ public class AxisInputFilter implements InputFilter {
 		}
 	}
 
+	/**
+	 * Disallows adding more axis, after which the verdicts of the filter never change
+	 */
+	public AxisInputFilter freeze() {
+		this.frozen = true;
+		return this;
+	}
+
+	/**
+	 * The verdict depends on the identifier of an input only, so it is stable once the filter is frozen. An event
+	 * source may then cache the verdicts
+	 * 
+	 * @see #freeze()
+	 */
+	@Override
+	public boolean isStable() {
+		return isFrozen();
+	}
+
 	private boolean hasAxisByName(String axisName) {
 		for (Axis axis : getAxis()) {
 			if (axis.getName().equals(axisName))
@@ -92,6 +121,10 @@ public class AxisInputFilter implements InputFilter {
 		return mode;
 	}
 
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	private List<Axis> getAxis() {
 		return axis;
 	}
@@ -0,0 +1,32 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+/**
+ * Holds on to the previous value until the value has moved away from it by at least a minimum delta. The centre and
+ * the ends of the value range of JInput analog components, -1 and 1, are let through regardless, so a component that
+ * comes to rest or is pushed all the way is never left short. A value that falls back into the dead zone is reported
+ * by {@link JInputEventSource} without quantization, as analog components seldom rest at exactly 0
+ */
+public class DeltaQuantization extends AnalogQuantization {
+
+	private float minimumDelta;
+
+	public DeltaQuantization(float minimumDelta) {
+		if (minimumDelta <= 0)
+			throw new IllegalArgumentException("Minimum delta must be positive: " + minimumDelta);
+		this.minimumDelta = minimumDelta;
+	}
+
+	@Override
+	public float quantize(float value, float previousValue) {
+		if (Math.abs(value - previousValue) >= minimumDelta || value == 0f || Math.abs(value) >= 1.0f) {
+			return value;
+		} else {
+			return previousValue;
+		}
+	}
+
+	public float getMinimumDelta() {
+		return minimumDelta;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+/**
+ * Exponential moving average with a fixed time constant. The weight of a sample depends on the time since the previous
+ * one, so the smoothing does not change with the poll rate
+ */
+public class ExponentialSmoothing extends AnalogSmoothing {
+
+	private float timeConstantMillis; // time to cover 63% of a step in the input
+
+	public static final float DEFAULT_TIME_CONSTANT_MILLIS = 30f;
+
+	public ExponentialSmoothing() {
+		this(DEFAULT_TIME_CONSTANT_MILLIS);
+	}
+
+	public ExponentialSmoothing(float timeConstantMillis) {
+		this(timeConstantMillis, DEFAULT_MINIMUM_CHANGE);
+	}
+
+	public ExponentialSmoothing(float timeConstantMillis, float minimumChange) {
+		super(minimumChange);
+		if (timeConstantMillis <= 0)
+			throw new IllegalArgumentException("Time constant must be positive: " + timeConstantMillis);
+		this.timeConstantMillis = timeConstantMillis;
+	}
+
+	@Override
+	protected float computeSmoothedValue(AnalogSmoothingState state, int index, float value, float elapsedSeconds) {
+		float alpha = 1f - (float) Math.exp(-elapsedSeconds * 1000f / getTimeConstantMillis());
+		float previousValue = state.getSmoothedValue(index);
+		return previousValue + alpha * (value - previousValue);
+	}
+
+	public float getTimeConstantMillis() {
+		return timeConstantMillis;
+	}
+
+}
\ No newline at end of file
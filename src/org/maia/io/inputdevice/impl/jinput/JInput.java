@@ -11,6 +11,8 @@ public class JInput extends Input {
 
 	private float lastValue;
 
+	private float lastUnquantizedValue; // last value that passed the overshoot check, before quantization
+
 	public JInput(JInputDevice device, Component component) {
 		super(device, component.getName(), component.getIdentifier().getName());
 		this.component = component;
@@ -52,4 +54,12 @@ public class JInput extends Input {
 		this.lastValue = value;
 	}
 
+	float getLastUnquantizedValue() {
+		return lastUnquantizedValue;
+	}
+
+	void setLastUnquantizedValue(float value) {
+		this.lastUnquantizedValue = value;
+	}
+
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import java.util.Vector;
 
 import org.maia.io.inputdevice.Input;
 import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputDeviceState;
 
 import net.java.games.input.Component;
 import net.java.games.input.Controller;
@@ -17,9 +18,12 @@ public class JInputDevice extends InputDevice {
 
 	private Controller controller;
 
+	private InputDeviceState state; // indexed by component position
+
 	public JInputDevice(Controller controller) {
 		super(controller.getName(), deriveIdentifier(controller));
 		this.controller = controller;
+		this.state = new InputDeviceState(this, controller.getComponents().length);
 	}
 
 	private static String deriveIdentifier(Controller controller) {
@@ -96,4 +100,8 @@ public class JInputDevice extends InputDevice {
 		return controller;
 	}
 
+	InputDeviceState getState() {
+		return state;
+	}
+
 }
\ No newline at end of file
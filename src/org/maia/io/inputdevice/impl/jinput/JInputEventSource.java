@@ -1,5 +1,6 @@
 package org.maia.io.inputdevice.impl.jinput;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -8,13 +9,17 @@ import java.util.Vector;
 import org.maia.io.inputdevice.Input;
 import org.maia.io.inputdevice.InputDevice;
 import org.maia.io.inputdevice.InputDeviceFilter;
+import org.maia.io.inputdevice.InputDeviceState;
 import org.maia.io.inputdevice.InputEvent;
 import org.maia.io.inputdevice.InputEventSource;
 import org.maia.io.inputdevice.InputFilter;
 
+import net.java.games.input.AbstractController;
 import net.java.games.input.Component;
 import net.java.games.input.Controller;
 import net.java.games.input.ControllerEnvironment;
+import net.java.games.input.Event;
+import net.java.games.input.EventQueue;
 import net.java.games.input.PublicDefaultControllerEnvironment;
 
 public class JInputEventSource extends InputEventSource {
@@ -29,12 +34,32 @@ public class JInputEventSource extends InputEventSource {
 
 	private boolean reuseEventObjects; // when true, reuses event objects over poll cycles
 
+	private JInputPollMode defaultPollMode = JInputPollMode.COMPONENT_SCAN;
+
+	private Map<String, JInputPollMode> pollModes; // by device identifier, overriding the default poll mode
+
+	private Event queueEvent; // reusable event for draining event queues
+
+	private AnalogSmoothing defaultAnalogSmoothing; // null when not smoothing by default
+
+	private Map<Input, AnalogSmoothing> analogSmoothings; // overriding the default analog smoothing
+
+	private Map<InputDevice, AnalogSmoothingState> analogSmoothingStates; // kept over scans
+
+	private AnalogQuantization defaultAnalogQuantization; // null when not quantizing by default
+
+	private Map<Input, AnalogQuantization> analogQuantizations; // overriding the default analog quantization
+
 	private List<InputEvent> events; // reusable collection of events
 
 	private ReusableEventPool reusableEventPool; // collection of reusable events
 
 	private Controller[] controllers;
 
+	private ControllerIndex[] controllerIndices; // parallel to controllers, rebuilt at scan time and on filter change
+
+	private Object scanLock = new Object(); // serializes scans, independent of polling
+
 	private Map<Controller, JInputDevice> deviceMap;
 
 	private Map<Component, JInput> inputMap;
@@ -47,6 +72,8 @@ public class JInputEventSource extends InputEventSource {
 
 	private static long DEFAULT_CE_STARTUP_MASK_TIME = 400L;
 
+	private static final int MINIMUM_EVENT_QUEUE_SIZE = 32;
+
 	public static final String SYSTEM_PROPERTY_RENEW_CE = "jinput.renewCE";
 
 	public static final String SYSTEM_PROPERTY_REUSE_EVENT_OBJECTS = "jinput.reuseEventObjects";
@@ -64,19 +91,25 @@ public class JInputEventSource extends InputEventSource {
 		this.renewControllerEnvironmentForScan = Boolean
 				.parseBoolean(System.getProperty(SYSTEM_PROPERTY_RENEW_CE, "true"));
 		this.reuseEventObjects = Boolean.parseBoolean(System.getProperty(SYSTEM_PROPERTY_REUSE_EVENT_OBJECTS, "true"));
-		this.events = new Vector<InputEvent>();
+		this.events = new ArrayList<InputEvent>();
 		this.reusableEventPool = new ReusableEventPool();
 		this.deviceMap = new HashMap<Controller, JInputDevice>();
 		this.inputMap = new HashMap<Component, JInput>(100);
+		this.pollModes = new HashMap<String, JInputPollMode>();
+		this.queueEvent = new Event();
+		this.analogSmoothings = new HashMap<Input, AnalogSmoothing>();
+		this.analogSmoothingStates = new HashMap<InputDevice, AnalogSmoothingState>();
+		this.analogQuantizations = new HashMap<Input, AnalogQuantization>();
 	}
 
 	@Override
 	public InputFilter createExplicitUserGestureInputFilter() {
-		return AxisInputFilter.createExplicitUserGestureFilter();
+		return AxisInputFilter.createExplicitUserGestureFilter().freeze();
 	}
 
 	@Override
 	public synchronized List<InputEvent> pollEvents() {
+		beginPollCycle();
 		if (isReuseEventObjects())
 			getReusableEventPool().recycle();
 		List<InputEvent> events = getEvents();
@@ -86,67 +119,175 @@ public class JInputEventSource extends InputEventSource {
 	}
 
 	private void pollEvents(List<InputEvent> events) {
-		Controller[] controllers = getControllers();
-		for (int i = 0; i < controllers.length; i++) {
-			Controller controller = controllers[i];
-			JInputDevice device = mapToDevice(controller);
-			if (getDeviceFilter().accept(device)) {
-				pollEvents(controller, events);
+		ControllerIndex[] indices = getControllerIndices();
+		InputDeviceFilter deviceFilter = getDeviceFilter();
+		boolean deviceVerdictsCached = deviceFilter.isStable();
+		for (int i = 0; i < indices.length; i++) {
+			ControllerIndex index = indices[i];
+			if (deviceVerdictsCached ? index.isDeviceAccepted() : deviceFilter.accept(index.getDevice())) {
+				pollEvents(index, events);
 			}
 		}
 	}
 
-	private void pollEvents(Controller controller, List<InputEvent> events) {
-		if (controller.poll()) {
-			if (!isMaskEvents()) {
-				Component[] components = controller.getComponents();
-				for (int i = 0; i < components.length; i++) {
-					Component component = components[i];
-					pollEvents(controller, component, events);
+	/**
+	 * Polls a controller. In event queue mode, the components are scanned once to synchronize with the queue, after
+	 * which only the queue is drained. Whenever events are masked, the queue is synchronized anew
+	 */
+	private void pollEvents(ControllerIndex index, List<InputEvent> events) {
+		if (index.getController().poll()) {
+			if (isMaskEvents()) {
+				index.setEventQueueSynchronized(false);
+			} else if (index.isEventQueueSynchronized()) {
+				pollEventQueue(index, events);
+			} else {
+				pollComponents(index, events);
+				if (JInputPollMode.EVENT_QUEUE.equals(index.getPollMode())) {
+					discardEventQueue(index.getController());
+					index.setEventQueueSynchronized(true);
 				}
 			}
 		}
 	}
 
-	private void pollEvents(Controller controller, Component component, List<InputEvent> events) {
-		JInput input = mapToInput(controller, component);
-		if (getInputFilter().accept(input)) {
-			float value = component.getPollData();
-			float previousValue = input.getLastValue();
-			boolean valueOfInterest = false;
-			if (input.isDigital()) {
-				valueOfInterest = value != previousValue;
-			} else if (input.isAnalog()) {
-				float valueDiff = Math.abs(value - previousValue);
-				if (valueDiff > 0f && valueDiff <= getOvershootValueChange()) {
-					float deadZone = Math.max(component.getDeadZone(), getMinimumAnalogDeadZone());
-					if (isExposeEventsInDeadzone() || Math.abs(value) > deadZone
-							|| Math.abs(previousValue) > deadZone) {
-						valueOfInterest = true;
-					}
+	private void pollComponents(ControllerIndex index, List<InputEvent> events) {
+		Component[] components = index.getComponents();
+		float[] values = index.getPolledValues();
+		updateState(index.getDevice().getState(), components, values);
+		JInput[] inputs = index.getInputs();
+		float[] deadZones = index.getDeadZones();
+		float minimumDeadZone = getMinimumAnalogDeadZone();
+		InputFilter inputFilter = getInputFilter();
+		boolean inputVerdictsCached = inputFilter.isStable();
+		AnalogSmoothing[] smoothings = index.getAnalogSmoothings();
+		long timeNanos = smoothings != null ? System.nanoTime() : 0L;
+		for (int i = 0; i < components.length; i++) {
+			if (inputVerdictsCached ? index.isInputAccepted(i) : inputFilter.accept(inputs[i])) {
+				float deadZone = Math.max(deadZones[i], minimumDeadZone);
+				float value = values[i];
+				if (smoothings != null && smoothings[i] != null) {
+					index.setSample(i, value, 0L);
+					value = smoothings[i].smooth(index.getAnalogSmoothingState(), i, value, timeNanos);
+				}
+				pollEvents(inputs[i], value, deadZone, index.getAnalogQuantization(i), 0L, events);
+			}
+		}
+	}
+
+	private void pollEventQueue(ControllerIndex index, List<InputEvent> events) {
+		EventQueue queue = index.getController().getEventQueue();
+		Event queueEvent = getQueueEvent();
+		Component[] components = index.getComponents();
+		InputDeviceState state = index.getDevice().getState();
+		JInput[] inputs = index.getInputs();
+		float[] deadZones = index.getDeadZones();
+		float minimumDeadZone = getMinimumAnalogDeadZone();
+		InputFilter inputFilter = getInputFilter();
+		boolean inputVerdictsCached = inputFilter.isStable();
+		AnalogSmoothing[] smoothings = index.getAnalogSmoothings();
+		state.beginUpdate();
+		while (queue.getNextEvent(queueEvent)) {
+			int i = index.getComponentIndex(queueEvent.getComponent());
+			if (i >= 0) {
+				float value = queueEvent.getValue();
+				state.setValue(i, components[i].isRelative() ? components[i].getPollData() : value);
+				if (smoothings != null && smoothings[i] != null) {
+					index.setSample(i, value, queueEvent.getNanos()); // smoothed once per poll, below
+				} else if (inputVerdictsCached ? index.isInputAccepted(i) : inputFilter.accept(inputs[i])) {
+					float deadZone = Math.max(deadZones[i], minimumDeadZone);
+					pollEvents(inputs[i], value, deadZone, index.getAnalogQuantization(i), queueEvent.getNanos(),
+							events);
 				}
 			}
-			if (valueOfInterest) {
-				input.setLastValue(value);
-				if (isReuseEventObjects()) {
-					ReusableInputEvent event = getReusableEventPool().drawFromPool();
-					if (event != null) {
-						event.reuse(input, value);
-					} else {
-						event = new ReusableInputEvent(input, value);
-						getReusableEventPool().addToPool(event);
+		}
+		if (smoothings != null) {
+			// smoothed components keep moving towards their last sample, also when their queue is silent
+			long timeNanos = System.nanoTime();
+			int[] smoothedComponents = index.getSmoothedComponentIndices();
+			for (int j = 0; j < smoothedComponents.length; j++) {
+				int i = smoothedComponents[j];
+				if (inputVerdictsCached ? index.isInputAccepted(i) : inputFilter.accept(inputs[i])) {
+					float deadZone = Math.max(deadZones[i], minimumDeadZone);
+					float value = smoothings[i].smooth(index.getAnalogSmoothingState(), i, index.getSampleValue(i),
+							timeNanos);
+					pollEvents(inputs[i], value, deadZone, index.getAnalogQuantization(i),
+							index.getSampleDeviceTimeNanos(i), events);
+				}
+			}
+		}
+		int[] relativeComponents = index.getRelativeComponentIndices();
+		for (int j = 0; j < relativeComponents.length; j++) {
+			int i = relativeComponents[j];
+			state.setValue(i, components[i].getPollData()); // back to 0 when not moved during this poll
+		}
+		state.endUpdate();
+	}
+
+	private void discardEventQueue(Controller controller) {
+		EventQueue queue = controller.getEventQueue();
+		Event queueEvent = getQueueEvent();
+		while (queue.getNextEvent(queueEvent)) {
+			// stale events
+		}
+	}
+
+	private void updateState(InputDeviceState state, Component[] components, float[] values) {
+		state.beginUpdate();
+		for (int i = 0; i < components.length; i++) {
+			values[i] = components[i].getPollData(); // read once, reused for the change check
+			state.setValue(i, values[i]);
+		}
+		state.endUpdate();
+	}
+
+	private void pollEvents(JInput input, float value, float deadZone, AnalogQuantization quantization,
+			long deviceTimeNanos, List<InputEvent> events) {
+		float previousValue = input.getLastValue();
+		boolean valueOfInterest = false;
+		if (input.isDigital()) {
+			valueOfInterest = value != previousValue;
+		} else if (input.isAnalog()) {
+			// overshoot and dead zone apply to the actual movement, quantization only decides whether it is reported
+			float previousUnquantizedValue = input.getLastUnquantizedValue();
+			float valueDiff = Math.abs(value - previousUnquantizedValue);
+			if (valueDiff > 0f && valueDiff <= getOvershootValueChange()) {
+				input.setLastUnquantizedValue(value);
+				// a release into the dead zone is reported as is, or quantization could hold on to a value outside it
+				boolean deadZoneEntered = Math.abs(value) <= deadZone && Math.abs(previousValue) > deadZone;
+				if (isExposeEventsInDeadzone() || Math.abs(value) > deadZone
+						|| Math.abs(previousUnquantizedValue) > deadZone || deadZoneEntered) {
+					if (quantization != null && !deadZoneEntered) {
+						value = quantization.quantize(value, previousValue);
 					}
-					events.add(event);
+					valueOfInterest = value != previousValue;
+				}
+			}
+		}
+		if (valueOfInterest) {
+			input.setLastValue(value);
+			ReusableInputEvent event = null;
+			if (isReuseEventObjects()) {
+				event = getReusableEventPool().drawFromPool();
+				if (event != null) {
+					event.reuse(input, value, deviceTimeNanos);
 				} else {
-					events.add(new InputEvent(input, value));
+					event = new ReusableInputEvent(input, value, deviceTimeNanos);
+					getReusableEventPool().addToPool(event);
 				}
+			} else {
+				event = new ReusableInputEvent(input, value, deviceTimeNanos);
 			}
+			stampEvent(event);
+			events.add(event);
 		}
 	}
 
 	@Override
 	public synchronized List<InputDevice> getInputDevices() {
-		Controller[] controllers = getControllers();
+		return mapToDevices(getControllers());
+	}
+
+	private List<InputDevice> mapToDevices(Controller[] controllers) {
 		List<InputDevice> devices = new Vector<InputDevice>(controllers.length);
 		for (int i = 0; i < controllers.length; i++) {
 			Controller controller = controllers[i];
@@ -155,39 +296,174 @@ public class JInputEventSource extends InputEventSource {
 		return devices;
 	}
 
+	/**
+	 * Returns the state of a device, which is updated on every poll of the device. Only the lookup of the state is
+	 * synchronized, reading from it is lock-free
+	 */
 	@Override
-	public synchronized void scanInputDevices() {
-		log("Scanning input devices");
-		if (isRenewControllerEnvironmentForScan()) {
-			forceRenewControllerEnvironment();
+	public synchronized InputDeviceState getInputDeviceState(InputDevice device) {
+		Controller[] controllers = getControllers();
+		for (int i = 0; i < controllers.length; i++) {
+			JInputDevice candidate = mapToDevice(controllers[i]);
+			if (candidate.equals(device))
+				return candidate.getState();
 		}
-		controllers = null;
-		int count = getControllers().length; // refresh controllers list
-		log("Scanning found " + count + " device" + (count > 1 ? "s" : ""));
+		return null;
 	}
 
-	private void forceRenewControllerEnvironment() {
-		log("Renewing controller environment");
-		controllerEnvironment = null;
-		controllers = null;
+	/**
+	 * Scans for input devices. The enumeration of the controllers happens outside of the lock that guards polling,
+	 * only the resulting controllers are swapped in atomically. This way polling is not interrupted by a scan
+	 */
+	@Override
+	public void scanInputDevices() {
+		synchronized (scanLock) {
+			log("Scanning input devices");
+			ControllerEnvironment environment = null;
+			if (isRenewControllerEnvironmentForScan()) {
+				log("Renewing controller environment");
+				environment = createControllerEnvironment();
+			} else {
+				synchronized (this) {
+					environment = getControllerEnvironment();
+				}
+			}
+			Controller[] scannedControllers = environment.getControllers();
+			List<InputDevice> scannedDevices = null;
+			synchronized (this) {
+				if (environment != controllerEnvironment) {
+					setControllerEnvironment(environment);
+				}
+				controllers = scannedControllers;
+				controllerIndices = createControllerIndices(scannedControllers);
+				scannedDevices = mapToDevices(scannedControllers); // the device map is guarded by this lock
+			}
+			int count = scannedControllers.length;
+			log("Scanning found " + count + " device" + (count > 1 ? "s" : ""));
+			updateKnownInputDevices(scannedDevices); // notifies the hotplug listeners outside of the lock
+		}
+	}
+
+	/**
+	 * Creates the controller environment that enumerates the controllers. Subclasses can override this method to
+	 * provide a different environment, for instance one with mock controllers
+	 */
+	protected ControllerEnvironment createControllerEnvironment() {
+		return new PublicDefaultControllerEnvironment();
 	}
 
 	private ControllerEnvironment getControllerEnvironment() {
 		if (controllerEnvironment == null) {
-			controllerEnvironment = new PublicDefaultControllerEnvironment();
-			controllerEnvironmentCreationTime = System.currentTimeMillis();
-			controllerEnvironmentStartupMaskTime = DEFAULT_CE_STARTUP_MASK_TIME;
+			setControllerEnvironment(createControllerEnvironment());
 		}
 		return controllerEnvironment;
 	}
 
+	private void setControllerEnvironment(ControllerEnvironment environment) {
+		controllerEnvironment = environment;
+		controllerEnvironmentCreationTime = System.currentTimeMillis();
+		controllerEnvironmentStartupMaskTime = DEFAULT_CE_STARTUP_MASK_TIME;
+	}
+
 	private Controller[] getControllers() {
 		if (controllers == null) {
 			controllers = getControllerEnvironment().getControllers();
+			setKnownInputDevices(mapToDevices(controllers)); // baseline for hotplug detection
 		}
 		return controllers;
 	}
 
+	private ControllerIndex[] getControllerIndices() {
+		Controller[] controllers = getControllers();
+		if (controllerIndices == null) {
+			controllerIndices = createControllerIndices(controllers);
+		}
+		return controllerIndices;
+	}
+
+	private ControllerIndex[] createControllerIndices(Controller[] controllers) {
+		ControllerIndex[] indices = new ControllerIndex[controllers.length];
+		Map<InputDevice, AnalogSmoothingState> smoothingStates = new HashMap<InputDevice, AnalogSmoothingState>();
+		for (int i = 0; i < controllers.length; i++) {
+			indices[i] = createControllerIndex(controllers[i]);
+			AnalogSmoothingState smoothingState = indices[i].getAnalogSmoothingState();
+			if (smoothingState != null) {
+				smoothingStates.put(indices[i].getDevice(), smoothingState);
+			}
+		}
+		analogSmoothingStates = smoothingStates; // forget the states of devices that are gone
+		return indices;
+	}
+
+	/**
+	 * Creates the index of a controller. The filter verdicts are only evaluated for stable filters, the others are
+	 * consulted on every poll
+	 * 
+	 * @see InputFilter#isStable()
+	 * @see InputDeviceFilter#isStable()
+	 */
+	private ControllerIndex createControllerIndex(Controller controller) {
+		JInputDevice device = mapToDevice(controller); // orders the components of the controller
+		Component[] components = controller.getComponents();
+		JInput[] inputs = new JInput[components.length];
+		long[] inputsAccepted = new long[(components.length + 63) >>> 6];
+		float[] deadZones = new float[components.length];
+		boolean inputVerdictsCached = getInputFilter().isStable();
+		for (int i = 0; i < components.length; i++) {
+			inputs[i] = mapToInput(controller, components[i]);
+			if (inputVerdictsCached && getInputFilter().accept(inputs[i])) {
+				inputsAccepted[i >>> 6] |= 1L << i;
+			}
+			deadZones[i] = components[i].getDeadZone();
+		}
+		boolean deviceAccepted = getDeviceFilter().isStable() && getDeviceFilter().accept(device);
+		ControllerIndex index = new ControllerIndex(controller, device, deviceAccepted, components, inputs,
+				inputsAccepted, deadZones);
+		JInputPollMode pollMode = getPollMode(device);
+		if (JInputPollMode.EVENT_QUEUE.equals(pollMode)) {
+			index.indexComponentsForEventQueue();
+			if (controller instanceof AbstractController) {
+				// room for a press and a release of every component, so a poll does not lose changes
+				((AbstractController) controller).setEventQueueSize(Math.max(components.length * 2,
+						MINIMUM_EVENT_QUEUE_SIZE));
+			}
+		}
+		index.setPollMode(pollMode);
+		AnalogSmoothing[] smoothings = new AnalogSmoothing[components.length];
+		boolean smoothing = false;
+		for (int i = 0; i < components.length; i++) {
+			if (inputs[i].isAnalog() && !inputs[i].isRelative()) {
+				AnalogSmoothing analogSmoothing = getAnalogSmoothing(inputs[i]);
+				if (analogSmoothing != null && analogSmoothing != AnalogSmoothing.NONE) {
+					smoothings[i] = analogSmoothing;
+					smoothing = true;
+				}
+			}
+		}
+		AnalogQuantization[] quantizations = new AnalogQuantization[components.length];
+		boolean quantizing = false;
+		for (int i = 0; i < components.length; i++) {
+			if (inputs[i].isAnalog() && !inputs[i].isRelative()) {
+				AnalogQuantization quantization = getAnalogQuantization(inputs[i]);
+				if (quantization != null && quantization != AnalogQuantization.NONE) {
+					quantizations[i] = quantization;
+					quantizing = true;
+				}
+			}
+		}
+		if (quantizing) {
+			index.setAnalogQuantizations(quantizations);
+		}
+		if (smoothing) {
+			AnalogSmoothingState smoothingState = analogSmoothingStates.get(device);
+			if (smoothingState == null || smoothingState.getSize() != components.length) {
+				smoothingState = new AnalogSmoothingState(components.length);
+			}
+			index.indexComponentsForSmoothing(smoothings, smoothingState);
+		}
+		return index;
+	}
+
 	private void log(String message) {
 		System.out.println(this.getClass().getSimpleName() + " - " + message);
 	}
@@ -223,14 +499,198 @@ public class JInputEventSource extends InputEventSource {
 		return device;
 	}
 
+	/**
+	 * Sets the device filter. The verdicts of a stable filter are cached per device, from the next poll on
+	 */
+	@Override
+	public synchronized void setDeviceFilter(InputDeviceFilter deviceFilter) {
+		super.setDeviceFilter(deviceFilter);
+		controllerIndices = null;
+	}
+
+	/**
+	 * Sets the input filter. The verdicts of a stable filter are cached per input, from the next poll on
+	 */
+	@Override
+	public synchronized void setInputFilter(InputFilter inputFilter) {
+		super.setInputFilter(inputFilter);
+		controllerIndices = null;
+	}
+
+	public JInputPollMode getDefaultPollMode() {
+		return defaultPollMode;
+	}
+
+	/**
+	 * Sets the poll mode of the devices for which no poll mode was set explicitly
+	 * 
+	 * @see #setPollMode(InputDevice, JInputPollMode)
+	 */
+	public synchronized void setDefaultPollMode(JInputPollMode mode) {
+		if (mode == null)
+			throw new NullPointerException("Poll mode cannot be null");
+		this.defaultPollMode = mode;
+		controllerIndices = null;
+	}
+
+	/**
+	 * Returns the poll mode of a device
+	 * 
+	 * @return The poll mode set for the device, or the default poll mode when none was set
+	 */
+	public synchronized JInputPollMode getPollMode(InputDevice device) {
+		JInputPollMode mode = pollModes.get(device.getIdentifier());
+		return mode != null ? mode : getDefaultPollMode();
+	}
+
+	/**
+	 * Sets the poll mode of a device. The setting is kept by device identifier, so it survives scans and applies to a
+	 * device that is attached later
+	 * 
+	 * @param device
+	 *            The device
+	 * @param mode
+	 *            The poll mode, or <code>null</code> to fall back to the default poll mode
+	 */
+	public synchronized void setPollMode(InputDevice device, JInputPollMode mode) {
+		if (mode != null) {
+			pollModes.put(device.getIdentifier(), mode);
+		} else {
+			pollModes.remove(device.getIdentifier());
+		}
+		controllerIndices = null;
+	}
+
+	public AnalogSmoothing getDefaultAnalogSmoothing() {
+		return defaultAnalogSmoothing;
+	}
+
+	/**
+	 * Sets the smoothing of the absolute analog inputs for which no smoothing was set explicitly
+	 * 
+	 * @param smoothing
+	 *            The smoothing, or <code>null</code> to leave values as they are
+	 * @see #setAnalogSmoothing(Input, AnalogSmoothing)
+	 */
+	public synchronized void setDefaultAnalogSmoothing(AnalogSmoothing smoothing) {
+		this.defaultAnalogSmoothing = smoothing;
+		controllerIndices = null;
+	}
+
+	/**
+	 * Returns the smoothing of an input
+	 * 
+	 * @return The smoothing set for the input, or the default analog smoothing when none was set. Relative and digital
+	 *         inputs are never smoothed
+	 */
+	public synchronized AnalogSmoothing getAnalogSmoothing(Input input) {
+		AnalogSmoothing smoothing = analogSmoothings.get(input);
+		return smoothing != null ? smoothing : getDefaultAnalogSmoothing();
+	}
+
+	/**
+	 * Sets the smoothing of an absolute analog input. The smoothing state of the input is kept, so the setting can be
+	 * changed while the input is in use
+	 * 
+	 * @param input
+	 *            The input
+	 * @param smoothing
+	 *            The smoothing, {@link AnalogSmoothing#NONE} to exempt the input from the default smoothing, or
+	 *            <code>null</code> to fall back to the default analog smoothing
+	 */
+	public synchronized void setAnalogSmoothing(Input input, AnalogSmoothing smoothing) {
+		if (smoothing != null) {
+			analogSmoothings.put(input, smoothing);
+		} else {
+			analogSmoothings.remove(input);
+		}
+		controllerIndices = null;
+	}
+
+	public AnalogQuantization getDefaultAnalogQuantization() {
+		return defaultAnalogQuantization;
+	}
+
+	/**
+	 * Sets the quantization of the absolute analog inputs for which no quantization was set explicitly. Quantization
+	 * follows smoothing and the overshoot and dead zone checks, which apply to the unquantized values, and precedes the
+	 * check whether a value changed
+	 * 
+	 * @param quantization
+	 *            The quantization, or <code>null</code> to leave values as they are
+	 * @throws IllegalArgumentException
+	 *             When the quantization has steps larger than the overshoot value change
+	 * @see #setAnalogQuantization(Input, AnalogQuantization)
+	 */
+	public synchronized void setDefaultAnalogQuantization(AnalogQuantization quantization) {
+		checkQuantization(quantization, getOvershootValueChange());
+		this.defaultAnalogQuantization = quantization;
+		controllerIndices = null;
+	}
+
+	/**
+	 * Returns the quantization of an input
+	 * 
+	 * @return The quantization set for the input, or the default analog quantization when none was set. Relative and
+	 *         digital inputs are never quantized
+	 */
+	public synchronized AnalogQuantization getAnalogQuantization(Input input) {
+		AnalogQuantization quantization = analogQuantizations.get(input);
+		return quantization != null ? quantization : getDefaultAnalogQuantization();
+	}
+
+	/**
+	 * Sets the quantization of an absolute analog input
+	 * 
+	 * @param input
+	 *            The input
+	 * @param quantization
+	 *            The quantization, {@link AnalogQuantization#NONE} to exempt the input from the default quantization,
+	 *            or <code>null</code> to fall back to the default analog quantization
+	 * @throws IllegalArgumentException
+	 *             When the quantization has steps larger than the overshoot value change
+	 */
+	public synchronized void setAnalogQuantization(Input input, AnalogQuantization quantization) {
+		checkQuantization(quantization, getOvershootValueChange());
+		if (quantization != null) {
+			analogQuantizations.put(input, quantization);
+		} else {
+			analogQuantizations.remove(input);
+		}
+		controllerIndices = null;
+	}
+
 	public float getOvershootValueChange() {
 		return overshootValueChange;
 	}
 
-	public void setOvershootValueChange(float valueChange) {
+	/**
+	 * Sets the largest change of an analog value between two polls that is not considered a sporadic glitch
+	 * 
+	 * @throws IllegalArgumentException
+	 *             When a quantization is set with steps larger than the given value change
+	 */
+	public synchronized void setOvershootValueChange(float valueChange) {
+		checkQuantization(getDefaultAnalogQuantization(), valueChange);
+		for (AnalogQuantization quantization : analogQuantizations.values()) {
+			checkQuantization(quantization, valueChange);
+		}
 		this.overshootValueChange = valueChange;
 	}
 
+	/**
+	 * Rejects step quantizations whose levels are further apart than the overshoot value change, as the reported
+	 * values would jump further than any movement the source lets through
+	 */
+	private static void checkQuantization(AnalogQuantization quantization, float overshootValueChange) {
+		if (quantization instanceof StepQuantization) {
+			float stepSize = ((StepQuantization) quantization).getStepSize();
+			if (stepSize > overshootValueChange)
+				throw new IllegalArgumentException("Step size " + stepSize + " exceeds the overshoot value change "
+						+ overshootValueChange);
+		}
+	}
+
 	public float getMinimumAnalogDeadZone() {
 		return minimumAnalogDeadZone;
 	}
@@ -271,16 +731,222 @@ public class JInputEventSource extends InputEventSource {
 		return reusableEventPool;
 	}
 
+	private Event getQueueEvent() {
+		return queueEvent;
+	}
+
+	/**
+	 * Flat view of the components of a controller, with their inputs, filter verdicts and dead zones at the same index,
+	 * so polling needs no lookups
+	 */
+	private static class ControllerIndex {
+
+		private Controller controller;
+
+		private JInputDevice device;
+
+		private boolean deviceAccepted; // cached verdict of the device filter
+
+		private Component[] components;
+
+		private JInput[] inputs;
+
+		private long[] inputsAccepted; // bitset of cached verdicts of the input filter, by component index
+
+		private float[] deadZones; // as reported by the components
+
+		private float[] polledValues; // read from the components during the last component scan
+
+		private JInputPollMode pollMode;
+
+		private Component[] componentSlots; // open-addressing identity table of the components, in event queue mode
+
+		private int[] componentSlotIndices; // component index per slot of componentSlots
+
+		private int[] relativeComponentIndices; // only in event queue mode
+
+		private boolean eventQueueSynchronized; // when true, the event queue holds all changes since the last poll
+
+		private AnalogSmoothing[] analogSmoothings; // null when no component is smoothed, else null per unsmoothed one
+
+		private AnalogSmoothingState analogSmoothingState;
+
+		private int[] smoothedComponentIndices;
+
+		private float[] sampleValues; // last value read from a smoothed component
+
+		private long[] sampleDeviceTimesNanos; // driver time stamp of the last value read from a smoothed component
+
+		private AnalogQuantization[] analogQuantizations; // null when no component is quantized
+
+		public ControllerIndex(Controller controller, JInputDevice device, boolean deviceAccepted,
+				Component[] components, JInput[] inputs, long[] inputsAccepted, float[] deadZones) {
+			this.controller = controller;
+			this.device = device;
+			this.deviceAccepted = deviceAccepted;
+			this.components = components;
+			this.inputs = inputs;
+			this.inputsAccepted = inputsAccepted;
+			this.deadZones = deadZones;
+			this.polledValues = new float[components.length];
+		}
+
+		public Controller getController() {
+			return controller;
+		}
+
+		public JInputDevice getDevice() {
+			return device;
+		}
+
+		public boolean isDeviceAccepted() {
+			return deviceAccepted;
+		}
+
+		public Component[] getComponents() {
+			return components;
+		}
+
+		public JInput[] getInputs() {
+			return inputs;
+		}
+
+		public boolean isInputAccepted(int componentIndex) {
+			return (inputsAccepted[componentIndex >>> 6] & (1L << componentIndex)) != 0L;
+		}
+
+		public float[] getDeadZones() {
+			return deadZones;
+		}
+
+		public float[] getPolledValues() {
+			return polledValues;
+		}
+
+		public void indexComponentsForEventQueue() {
+			int slotCount = Integer.highestOneBit(Math.max(components.length, 1) * 2) * 2; // at most half full
+			componentSlots = new Component[slotCount];
+			componentSlotIndices = new int[slotCount];
+			int relativeCount = 0;
+			for (int i = 0; i < components.length; i++) {
+				int slot = System.identityHashCode(components[i]) & (slotCount - 1);
+				while (componentSlots[slot] != null) {
+					slot = (slot + 1) & (slotCount - 1);
+				}
+				componentSlots[slot] = components[i];
+				componentSlotIndices[slot] = i;
+				if (components[i].isRelative())
+					relativeCount++;
+			}
+			relativeComponentIndices = new int[relativeCount];
+			for (int i = 0, j = 0; i < components.length; i++) {
+				if (components[i].isRelative())
+					relativeComponentIndices[j++] = i;
+			}
+		}
+
+		public void indexComponentsForSmoothing(AnalogSmoothing[] smoothings, AnalogSmoothingState smoothingState) {
+			analogSmoothings = smoothings;
+			analogSmoothingState = smoothingState;
+			int smoothedCount = 0;
+			for (int i = 0; i < smoothings.length; i++) {
+				if (smoothings[i] != null)
+					smoothedCount++;
+			}
+			smoothedComponentIndices = new int[smoothedCount];
+			for (int i = 0, j = 0; i < smoothings.length; i++) {
+				if (smoothings[i] != null)
+					smoothedComponentIndices[j++] = i;
+			}
+			sampleValues = new float[smoothings.length];
+			sampleDeviceTimesNanos = new long[smoothings.length];
+		}
+
+		public AnalogQuantization getAnalogQuantization(int componentIndex) {
+			return analogQuantizations != null ? analogQuantizations[componentIndex] : null;
+		}
+
+		public void setAnalogQuantizations(AnalogQuantization[] quantizations) {
+			this.analogQuantizations = quantizations;
+		}
+
+		public AnalogSmoothing[] getAnalogSmoothings() {
+			return analogSmoothings;
+		}
+
+		public AnalogSmoothingState getAnalogSmoothingState() {
+			return analogSmoothingState;
+		}
+
+		public int[] getSmoothedComponentIndices() {
+			return smoothedComponentIndices;
+		}
+
+		public void setSample(int componentIndex, float value, long deviceTimeNanos) {
+			sampleValues[componentIndex] = value;
+			sampleDeviceTimesNanos[componentIndex] = deviceTimeNanos;
+		}
+
+		public float getSampleValue(int componentIndex) {
+			return sampleValues[componentIndex];
+		}
+
+		public long getSampleDeviceTimeNanos(int componentIndex) {
+			return sampleDeviceTimesNanos[componentIndex];
+		}
+
+		/**
+		 * Returns the index of a component by identity, without boxing or calling <code>equals</code>
+		 * 
+		 * @return The index, or -1 when the component does not belong to the controller
+		 */
+		public int getComponentIndex(Component component) {
+			int mask = componentSlots.length - 1;
+			int slot = System.identityHashCode(component) & mask;
+			Component candidate = null;
+			while ((candidate = componentSlots[slot]) != null) {
+				if (candidate == component)
+					return componentSlotIndices[slot];
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+		public int[] getRelativeComponentIndices() {
+			return relativeComponentIndices;
+		}
+
+		public JInputPollMode getPollMode() {
+			return pollMode;
+		}
+
+		public void setPollMode(JInputPollMode pollMode) {
+			this.pollMode = pollMode;
+		}
+
+		public boolean isEventQueueSynchronized() {
+			return eventQueueSynchronized;
+		}
+
+		public void setEventQueueSynchronized(boolean queueSynchronized) {
+			this.eventQueueSynchronized = queueSynchronized;
+		}
+
+	}
+
 	private static class ReusableInputEvent extends InputEvent {
 
-		public ReusableInputEvent(Input input, float value) {
+		public ReusableInputEvent(Input input, float value, long deviceTimeNanos) {
 			super(input, value);
+			setDeviceTimeNanos(deviceTimeNanos);
 		}
 
-		public void reuse(Input input, float value) {
+		public void reuse(Input input, float value, long deviceTimeNanos) {
 			setInput(input);
 			setValue(value);
 			setCreationTime(System.currentTimeMillis());
+			setCreationTimeNanos(System.nanoTime());
+			setDeviceTimeNanos(deviceTimeNanos);
 		}
 
 	}
@@ -0,0 +1,22 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+/**
+ * Determines how a <code>JInputEventSource</code> finds out which components of a controller changed
+ */
+public enum JInputPollMode {
+
+	/**
+	 * Reads the value of every component and compares it with the previous value. The cost is proportional to the
+	 * number of components, whether they changed or not
+	 */
+	COMPONENT_SCAN,
+
+	/**
+	 * Drains the event queue of the controller, touching only the components that changed. Events carry the time
+	 * stamps of the device driver
+	 * 
+	 * @see org.maia.io.inputdevice.InputEvent#getDeviceTimeNanos()
+	 */
+	EVENT_QUEUE;
+
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+/**
+ * Adaptive low-pass filter after Casiez, Roussel and Vogel, "1 Euro Filter: A Simple Speed-based Low-pass Filter for
+ * Noisy Input in Interactive Systems" (CHI 2012)
+ * <p>
+ * The cutoff frequency rises with the speed of the input. A component at rest is smoothed strongly, which removes
+ * jitter, while a component in quick motion is hardly smoothed, which keeps the lag low.
+ * </p>
+ */
+public class OneEuroSmoothing extends AnalogSmoothing {
+
+	private float minimumCutoff; // in Hz, the cutoff frequency at rest
+
+	private float speedCoefficient; // increase of the cutoff frequency per unit of speed
+
+	private float derivativeCutoff; // in Hz, for smoothing the speed
+
+	public static final float DEFAULT_MINIMUM_CUTOFF = 1.0f;
+
+	public static final float DEFAULT_SPEED_COEFFICIENT = 1.0f;
+
+	public static final float DEFAULT_DERIVATIVE_CUTOFF = 1.0f;
+
+	public OneEuroSmoothing() {
+		this(DEFAULT_MINIMUM_CUTOFF, DEFAULT_SPEED_COEFFICIENT);
+	}
+
+	public OneEuroSmoothing(float minimumCutoff, float speedCoefficient) {
+		this(minimumCutoff, speedCoefficient, DEFAULT_DERIVATIVE_CUTOFF, DEFAULT_MINIMUM_CHANGE);
+	}
+
+	public OneEuroSmoothing(float minimumCutoff, float speedCoefficient, float derivativeCutoff, float minimumChange) {
+		super(minimumChange);
+		if (minimumCutoff <= 0 || derivativeCutoff <= 0)
+			throw new IllegalArgumentException("Cutoff frequencies must be positive");
+		if (speedCoefficient < 0)
+			throw new IllegalArgumentException("Speed coefficient cannot be negative: " + speedCoefficient);
+		this.minimumCutoff = minimumCutoff;
+		this.speedCoefficient = speedCoefficient;
+		this.derivativeCutoff = derivativeCutoff;
+	}
+
+	@Override
+	protected float computeSmoothedValue(AnalogSmoothingState state, int index, float value, float elapsedSeconds) {
+		float previousValue = state.getSmoothedValue(index);
+		float previousDerivative = state.getDerivative(index);
+		float derivative = (value - previousValue) / elapsedSeconds;
+		float smoothedDerivative = previousDerivative
+				+ getSmoothingFactor(getDerivativeCutoff(), elapsedSeconds) * (derivative - previousDerivative);
+		state.setDerivative(index, smoothedDerivative);
+		float cutoff = getMinimumCutoff() + getSpeedCoefficient() * Math.abs(smoothedDerivative);
+		return previousValue + getSmoothingFactor(cutoff, elapsedSeconds) * (value - previousValue);
+	}
+
+	public float getMinimumCutoff() {
+		return minimumCutoff;
+	}
+
+	public float getSpeedCoefficient() {
+		return speedCoefficient;
+	}
+
+	public float getDerivativeCutoff() {
+		return derivativeCutoff;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+import org.maia.io.inputdevice.InputValueRange;
+
+/**
+ * Rounds values to the nearest of a number of evenly spaced levels. Both ends of the value range are levels, and so is
+ * the centre when the number of steps is even
+ */
+public class StepQuantization extends AnalogQuantization {
+
+	private int steps; // number of intervals between the levels
+
+	private float minimumValue;
+
+	private float maximumValue;
+
+	private float stepSize;
+
+	public StepQuantization(int steps) {
+		this(steps, new InputValueRange(-1.0f, 1.0f));
+	}
+
+	public StepQuantization(int steps, InputValueRange range) {
+		if (steps <= 0)
+			throw new IllegalArgumentException("Number of steps must be positive: " + steps);
+		if (range.isSingleValue())
+			throw new IllegalArgumentException("Range cannot be a single value: " + range);
+		this.steps = steps;
+		this.minimumValue = range.getMinimumValue();
+		this.maximumValue = range.getMaximumValue();
+		this.stepSize = (maximumValue - minimumValue) / steps;
+	}
+
+	@Override
+	public float quantize(float value, float previousValue) {
+		if (value <= minimumValue)
+			return minimumValue;
+		if (value >= maximumValue)
+			return maximumValue;
+		int level = Math.round((value - minimumValue) / stepSize);
+		return (float) (minimumValue + (double) (maximumValue - minimumValue) * level / steps);
+	}
+
+	public int getSteps() {
+		return steps;
+	}
+
+	public float getStepSize() {
+		return stepSize;
+	}
+
+	public InputValueRange getRange() {
+		return new InputValueRange(minimumValue, maximumValue);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.maia.io.inputdevice.impl.replay;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputValueRange;
+import org.maia.io.inputdevice.recorder.InputFlightRecordReader.InputEntry;
+
+/**
+ * Input of a recorded input session, with the same identifier, name and nature as the input that was recorded
+ * <p>
+ * A replay input equals the recorded input, as inputs are compared by device and identifier only
+ * </p>
+ */
+public class ReplayInput extends Input {
+
+	private boolean analog;
+
+	private boolean relative;
+
+	ReplayInput(ReplayInputDevice device, InputEntry entry) {
+		super(device, entry.getName(), entry.getIdentifier());
+		this.analog = entry.isAnalog();
+		this.relative = entry.isRelative();
+	}
+
+	@Override
+	public boolean isAnalog() {
+		return analog;
+	}
+
+	@Override
+	public boolean isRelative() {
+		return relative;
+	}
+
+	@Override
+	public InputValueRange getValueRange() {
+		// Same assumptions as for the recorded inputs
+		if (isDigital()) {
+			return new InputValueRange(0, 1.0f);
+		} else {
+			return new InputValueRange(-1.0f, 1.0f);
+		}
+	}
+
+	@Override
+	public ReplayInputDevice getDevice() {
+		return (ReplayInputDevice) super.getDevice();
+	}
+
+}
\ No newline at end of file
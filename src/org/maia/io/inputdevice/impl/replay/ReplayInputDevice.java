@@ -0,0 +1,85 @@
+package org.maia.io.inputdevice.impl.replay;
+
+import java.util.List;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputDeviceState;
+import org.maia.io.inputdevice.recorder.InputFlightRecordReader.DeviceEntry;
+import org.maia.io.inputdevice.recorder.InputFlightRecordReader.InputEntry;
+
+/**
+ * Device of a recorded input session, with the same identifier, name and type as the device that was recorded
+ * <p>
+ * A replay device equals the recorded device, as devices are compared by identifier only
+ * </p>
+ * 
+ * @see ReplayInputEventSource
+ */
+public class ReplayInputDevice extends InputDevice {
+
+	private DeviceEntry entry;
+
+	private InputDeviceState state;
+
+	ReplayInputDevice(DeviceEntry entry) {
+		super(entry.getName(), entry.getIdentifier());
+		this.entry = entry;
+		this.state = new InputDeviceState(this, entry.getInputs().size());
+	}
+
+	@Override
+	protected List<Input> enumerateInputs() {
+		List<InputEntry> inputEntries = getEntry().getInputs();
+		List<Input> inputs = new Vector<Input>(inputEntries.size());
+		for (InputEntry inputEntry : inputEntries) {
+			inputs.add(new ReplayInput(this, inputEntry));
+		}
+		return inputs;
+	}
+
+	ReplayInput getInput(int inputIndex) {
+		List<Input> inputs = getInputs();
+		return inputIndex < inputs.size() ? (ReplayInput) inputs.get(inputIndex) : null;
+	}
+
+	@Override
+	public String getTypeString() {
+		return getEntry().getTypeString();
+	}
+
+	@Override
+	public boolean isTypeMouse() {
+		return getEntry().getType().equals("mouse");
+	}
+
+	@Override
+	public boolean isTypeKeyboard() {
+		return getEntry().getType().equals("keyboard");
+	}
+
+	@Override
+	public boolean isTypeStick() {
+		return getEntry().getType().equals("stick");
+	}
+
+	@Override
+	public boolean isTypeGamepad() {
+		return getEntry().getType().equals("gamepad");
+	}
+
+	@Override
+	public boolean isTypeUnknown() {
+		return getEntry().getType().equals("unknown");
+	}
+
+	private DeviceEntry getEntry() {
+		return entry;
+	}
+
+	InputDeviceState getState() {
+		return state;
+	}
+
+}
\ No newline at end of file
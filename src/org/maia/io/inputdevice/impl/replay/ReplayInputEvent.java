@@ -0,0 +1,32 @@
+package org.maia.io.inputdevice.impl.replay;
+
+import org.maia.io.inputdevice.InputEvent;
+
+/**
+ * Reusable event replaying a record, timestamped on the clock of the replay
+ */
+public class ReplayInputEvent extends InputEvent {
+
+	private long recordedCreationTimeNanos; // creation time in the original session
+
+	ReplayInputEvent() {
+		super(null, 0f);
+	}
+
+	void replay(ReplayInput input, float value, long recordedCreationTimeNanos, long creationTimeNanos) {
+		setInput(input);
+		setValue(value);
+		setCreationTime(System.currentTimeMillis());
+		setCreationTimeNanos(creationTimeNanos);
+		this.recordedCreationTimeNanos = recordedCreationTimeNanos;
+	}
+
+	/**
+	 * Returns the creation time of the event in the recorded session, as given by <code>System.nanoTime()</code> at
+	 * the time of recording
+	 */
+	public long getRecordedCreationTimeNanos() {
+		return recordedCreationTimeNanos;
+	}
+
+}
\ No newline at end of file
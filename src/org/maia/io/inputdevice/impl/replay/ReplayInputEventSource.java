@@ -0,0 +1,292 @@
+package org.maia.io.inputdevice.impl.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputDeviceFilter;
+import org.maia.io.inputdevice.InputDeviceState;
+import org.maia.io.inputdevice.InputEvent;
+import org.maia.io.inputdevice.InputEventSource;
+import org.maia.io.inputdevice.InputFilter;
+import org.maia.io.inputdevice.impl.jinput.AxisInputFilter;
+import org.maia.io.inputdevice.recorder.InputFlightRecordReader;
+import org.maia.io.inputdevice.recorder.InputFlightRecordReader.DeviceEntry;
+
+/**
+ * Event source replaying an input session recorded by an <code>InputFlightRecorder</code>
+ * <p>
+ * The devices and inputs of the replay have the same identifiers, names and types as those that were recorded, so
+ * that controllers and filters configured for the original devices apply unchanged. Recorded events are released in
+ * their original order, at a pace given by the {@link ReplayMode}, and are issued new sequence numbers by this
+ * source. No input device hardware is needed.
+ * </p>
+ * 
+ * @see org.maia.io.inputdevice.recorder.InputFlightRecorder
+ */
+public class ReplayInputEventSource extends InputEventSource {
+
+	private InputFlightRecordReader reader;
+
+	private ReplayMode replayMode = ReplayMode.REAL_TIME;
+
+	private double speedFactor = DEFAULT_SPEED_FACTOR; // only for accelerated replay
+
+	private long replayStepNanos = DEFAULT_REPLAY_STEP_NANOS; // recorded time per poll, when as fast as possible
+
+	private Map<Integer, ReplayInputDevice> deviceMap; // by device index in the recording
+
+	private List<InputDevice> devices;
+
+	private List<InputEvent> events; // reusable collection of events
+
+	private List<ReplayInputEvent> eventPool; // reusable events
+
+	private boolean recordPending; // when true, the reader is positioned at a record not yet released
+
+	private boolean finished; // when true, all records have been released
+
+	private long replayStartNanos = -1L; // time at which the replay clock was anchored, -1 when not anchored
+
+	private long recordingStartNanos; // recorded time corresponding to the anchor of the replay clock
+
+	public static final double DEFAULT_SPEED_FACTOR = 2.0;
+
+	public static final long DEFAULT_REPLAY_STEP_NANOS = 1000000L;
+
+	public ReplayInputEventSource(File recordingDirectory) throws IOException {
+		this(recordingDirectory, InputDeviceFilter.ACCEPT_ALL);
+	}
+
+	public ReplayInputEventSource(File recordingDirectory, InputDeviceFilter deviceFilter) throws IOException {
+		this(recordingDirectory, deviceFilter, InputFilter.ACCEPT_ALL);
+	}
+
+	public ReplayInputEventSource(File recordingDirectory, InputDeviceFilter deviceFilter, InputFilter inputFilter)
+			throws IOException {
+		super(deviceFilter, inputFilter);
+		this.reader = new InputFlightRecordReader(recordingDirectory);
+		this.deviceMap = new HashMap<Integer, ReplayInputDevice>();
+		this.devices = new Vector<InputDevice>();
+		for (DeviceEntry entry : reader.getDevices()) {
+			ReplayInputDevice device = new ReplayInputDevice(entry);
+			deviceMap.put(entry.getIndex(), device);
+			devices.add(device);
+		}
+		this.events = new ArrayList<InputEvent>();
+		this.eventPool = new ArrayList<ReplayInputEvent>();
+		setKnownInputDevices(devices);
+	}
+
+	@Override
+	public InputFilter createExplicitUserGestureInputFilter() {
+		return AxisInputFilter.createExplicitUserGestureFilter().freeze(); // inputs carry the recorded JInput identifiers
+	}
+
+	@Override
+	public synchronized List<InputEvent> pollEvents() {
+		beginPollCycle();
+		List<InputEvent> events = getEvents();
+		events.clear();
+		if (!isFinished()) {
+			try {
+				pollEvents(events);
+			} catch (IOException e) {
+				log("Replay aborted: " + e.getMessage());
+				finished = true;
+			}
+		}
+		return events;
+	}
+
+	private void pollEvents(List<InputEvent> events) throws IOException {
+		if (!recordPending && !advance())
+			return;
+		InputFlightRecordReader reader = getReader();
+		long now = System.nanoTime();
+		if (replayStartNanos < 0) {
+			replayStartNanos = now;
+			recordingStartNanos = reader.getCreationTimeNanos();
+		}
+		long horizon = getReplayHorizonNanos(now);
+		int poolIndex = 0;
+		while (recordPending && reader.getCreationTimeNanos() <= horizon) {
+			ReplayInputDevice device = deviceMap.get(reader.getDeviceIndex());
+			ReplayInput input = device.getInput(reader.getInputIndex());
+			if (input != null && getDeviceFilter().accept(device)) {
+				float value = reader.getValue();
+				updateState(device.getState(), input.getOrdinal(), value);
+				if (getInputFilter().accept(input)) {
+					ReplayInputEvent event = null;
+					if (poolIndex < getEventPool().size()) {
+						event = getEventPool().get(poolIndex);
+					} else {
+						event = new ReplayInputEvent();
+						getEventPool().add(event);
+					}
+					poolIndex++;
+					long recordedTime = reader.getCreationTimeNanos();
+					event.replay(input, value, recordedTime, getReplayTimeNanos(recordedTime, now));
+					stampEvent(event);
+					events.add(event);
+				}
+			}
+			advance();
+		}
+	}
+
+	private boolean advance() throws IOException {
+		recordPending = getReader().nextRecord();
+		if (!recordPending) {
+			finished = true;
+		}
+		return recordPending;
+	}
+
+	private void updateState(InputDeviceState state, int ordinal, float value) {
+		state.beginUpdate();
+		state.setValue(ordinal, value);
+		state.endUpdate();
+	}
+
+	/**
+	 * Returns the recorded time up to which events are due at the given time
+	 */
+	private long getReplayHorizonNanos(long now) {
+		ReplayMode mode = getReplayMode();
+		if (ReplayMode.AS_FAST_AS_POSSIBLE.equals(mode)) {
+			return getReader().getCreationTimeNanos() + getReplayStepNanos() - 1L;
+		} else if (ReplayMode.ACCELERATED.equals(mode)) {
+			return recordingStartNanos + (long) ((now - replayStartNanos) * getSpeedFactor());
+		} else {
+			return recordingStartNanos + (now - replayStartNanos);
+		}
+	}
+
+	/**
+	 * Maps a recorded time onto the clock of the replay
+	 */
+	private long getReplayTimeNanos(long recordedTimeNanos, long now) {
+		ReplayMode mode = getReplayMode();
+		if (ReplayMode.AS_FAST_AS_POSSIBLE.equals(mode)) {
+			return now;
+		} else if (ReplayMode.ACCELERATED.equals(mode)) {
+			return replayStartNanos + (long) ((recordedTimeNanos - recordingStartNanos) / getSpeedFactor());
+		} else {
+			return replayStartNanos + (recordedTimeNanos - recordingStartNanos);
+		}
+	}
+
+	/**
+	 * Restarts the replay from the first record
+	 */
+	public synchronized void rewind() {
+		getReader().rewind();
+		recordPending = false;
+		finished = false;
+		replayStartNanos = -1L;
+	}
+
+	/**
+	 * Recorded devices do not come and go, so a scan always finds all of them
+	 */
+	@Override
+	public void scanInputDevices() {
+		updateKnownInputDevices(getInputDevices());
+	}
+
+	@Override
+	public List<InputDevice> getInputDevices() {
+		return new Vector<InputDevice>(devices);
+	}
+
+	@Override
+	public InputDeviceState getInputDeviceState(InputDevice device) {
+		for (ReplayInputDevice candidate : deviceMap.values()) {
+			if (candidate.equals(device))
+				return candidate.getState();
+		}
+		return null;
+	}
+
+	private void log(String message) {
+		System.out.println(this.getClass().getSimpleName() + " - " + message);
+	}
+
+	/**
+	 * Tells whether all recorded events have been released
+	 * 
+	 * @see #rewind()
+	 */
+	public synchronized boolean isFinished() {
+		return finished;
+	}
+
+	public File getRecordingDirectory() {
+		return getReader().getDirectory();
+	}
+
+	public ReplayMode getReplayMode() {
+		return replayMode;
+	}
+
+	/**
+	 * Changes the pace of the replay. The replay clock is anchored anew at the next poll, so the change does not cause
+	 * a burst of events or a pause
+	 */
+	public synchronized void setReplayMode(ReplayMode mode) {
+		if (mode == null)
+			throw new NullPointerException("Replay mode cannot be null");
+		this.replayMode = mode;
+		this.replayStartNanos = -1L;
+	}
+
+	public double getSpeedFactor() {
+		return speedFactor;
+	}
+
+	/**
+	 * Sets the factor by which the recorded time intervals are shortened in accelerated replay
+	 * 
+	 * @see ReplayMode#ACCELERATED
+	 */
+	public synchronized void setSpeedFactor(double factor) {
+		if (factor <= 0)
+			throw new IllegalArgumentException("Speed factor must be positive: " + factor);
+		this.speedFactor = factor;
+		this.replayStartNanos = -1L;
+	}
+
+	public long getReplayStepNanos() {
+		return replayStepNanos;
+	}
+
+	/**
+	 * Sets the span of recorded time released by every poll when replaying as fast as possible
+	 * 
+	 * @see ReplayMode#AS_FAST_AS_POSSIBLE
+	 */
+	public synchronized void setReplayStepNanos(long nanos) {
+		if (nanos <= 0)
+			throw new IllegalArgumentException("Replay step must be positive: " + nanos);
+		this.replayStepNanos = nanos;
+	}
+
+	private InputFlightRecordReader getReader() {
+		return reader;
+	}
+
+	private List<InputEvent> getEvents() {
+		return events;
+	}
+
+	private List<ReplayInputEvent> getEventPool() {
+		return eventPool;
+	}
+
+}
\ No newline at end of file
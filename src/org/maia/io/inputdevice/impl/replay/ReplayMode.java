@@ -0,0 +1,25 @@
+package org.maia.io.inputdevice.impl.replay;
+
+/**
+ * Pace at which a recorded input session is replayed
+ * 
+ * @see ReplayInputEventSource#setReplayMode(ReplayMode)
+ */
+public enum ReplayMode {
+
+	/**
+	 * Events are released when their original time has come, relative to the start of the replay
+	 */
+	REAL_TIME,
+
+	/**
+	 * As real time, but with the recorded time intervals divided by the speed factor of the source
+	 */
+	ACCELERATED,
+
+	/**
+	 * Events are released without waiting, one replay step of recorded time per poll
+	 */
+	AS_FAST_AS_POSSIBLE;
+
+}
\ No newline at end of file
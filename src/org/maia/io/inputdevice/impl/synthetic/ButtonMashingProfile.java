@@ -0,0 +1,35 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+/**
+ * Profile pressing and releasing all digital inputs at a fixed rate, each at its own phase. Analog inputs stay at rest
+ */
+public class ButtonMashingProfile extends SyntheticEventProfile {
+
+	private double pressesPerSecond;
+
+	public static final double DEFAULT_PRESSES_PER_SECOND = 10.0;
+
+	public ButtonMashingProfile() {
+		this(DEFAULT_PRESSES_PER_SECOND);
+	}
+
+	public ButtonMashingProfile(double pressesPerSecond) {
+		if (pressesPerSecond <= 0)
+			throw new IllegalArgumentException("Press rate must be positive: " + pressesPerSecond);
+		this.pressesPerSecond = pressesPerSecond;
+	}
+
+	@Override
+	public void computeValues(SyntheticInputDevice device, long timeNanos, float[] values) {
+		int digitalInputCount = device.getDigitalInputCount();
+		for (int i = 0; i < digitalInputCount; i++) {
+			double phase = getPhase(timeNanos, getPressesPerSecond(), i / (double) digitalInputCount);
+			values[i] = phase < 0.5 ? 1.0f : 0f;
+		}
+	}
+
+	public double getPressesPerSecond() {
+		return pressesPerSecond;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+/**
+ * Profile of a device at rest, whose analog inputs jitter around their center as worn sticks do. Every analog input
+ * takes a new pseudo-random value within the amplitude at a fixed rate. Digital inputs stay released
+ * <p>
+ * The noise is a function of the device, the input and the time only, so that runs are reproducible.
+ * </p>
+ */
+public class IdleNoiseProfile extends SyntheticEventProfile {
+
+	private float amplitude;
+
+	private double changesPerSecond;
+
+	public static final float DEFAULT_AMPLITUDE = 0.05f;
+
+	public static final double DEFAULT_CHANGES_PER_SECOND = 20.0;
+
+	public IdleNoiseProfile() {
+		this(DEFAULT_AMPLITUDE, DEFAULT_CHANGES_PER_SECOND);
+	}
+
+	public IdleNoiseProfile(float amplitude, double changesPerSecond) {
+		if (amplitude < 0)
+			throw new IllegalArgumentException("Amplitude cannot be negative: " + amplitude);
+		if (changesPerSecond <= 0)
+			throw new IllegalArgumentException("Change rate must be positive: " + changesPerSecond);
+		this.amplitude = amplitude;
+		this.changesPerSecond = changesPerSecond;
+	}
+
+	@Override
+	public void computeValues(SyntheticInputDevice device, long timeNanos, float[] values) {
+		long step = (long) (timeNanos * getChangesPerSecond() / 1.0e9);
+		int offset = device.getDigitalInputCount();
+		int analogInputCount = device.getAnalogInputCount();
+		for (int i = 0; i < analogInputCount; i++) {
+			long hash = mix(step * 0x9e3779b97f4a7c15L + device.getIndex() * 0x632be59bd9b4e019L + offset + i);
+			float noise = (hash >>> 40) / (float) (1 << 24); // in [0,1)
+			values[offset + i] = (noise * 2f - 1f) * getAmplitude();
+		}
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	public float getAmplitude() {
+		return amplitude;
+	}
+
+	public double getChangesPerSecond() {
+		return changesPerSecond;
+	}
+
+}
\ No newline at end of file
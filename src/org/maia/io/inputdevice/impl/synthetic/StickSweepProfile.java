@@ -0,0 +1,38 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+/**
+ * Profile sweeping all analog inputs from one end of their range to the other, following a sine wave. Pairs of
+ * consecutive analog inputs are a quarter cycle apart, so that they describe circles as the axes of a stick would.
+ * Digital inputs stay released
+ */
+public class StickSweepProfile extends SyntheticEventProfile {
+
+	private double sweepsPerSecond;
+
+	public static final double DEFAULT_SWEEPS_PER_SECOND = 1.0;
+
+	public StickSweepProfile() {
+		this(DEFAULT_SWEEPS_PER_SECOND);
+	}
+
+	public StickSweepProfile(double sweepsPerSecond) {
+		if (sweepsPerSecond <= 0)
+			throw new IllegalArgumentException("Sweep rate must be positive: " + sweepsPerSecond);
+		this.sweepsPerSecond = sweepsPerSecond;
+	}
+
+	@Override
+	public void computeValues(SyntheticInputDevice device, long timeNanos, float[] values) {
+		int offset = device.getDigitalInputCount();
+		int analogInputCount = device.getAnalogInputCount();
+		for (int i = 0; i < analogInputCount; i++) {
+			double phase = getPhase(timeNanos, getSweepsPerSecond(), (i / 2) * 0.1 + (i % 2) * 0.25);
+			values[offset + i] = (float) Math.sin(2.0 * Math.PI * phase);
+		}
+	}
+
+	public double getSweepsPerSecond() {
+		return sweepsPerSecond;
+	}
+
+}
\ No newline at end of file
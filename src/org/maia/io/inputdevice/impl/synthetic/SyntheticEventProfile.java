@@ -0,0 +1,38 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+/**
+ * Behaviour of the inputs of a synthetic device over time
+ * <p>
+ * On every poll, the profile computes the current values of all inputs of a device. The event source emits an event
+ * for every value that differs from the previous poll, so the event rate of a profile follows from how often its
+ * values change.
+ * </p>
+ * 
+ * @see SyntheticInputEventSource
+ */
+public abstract class SyntheticEventProfile {
+
+	protected SyntheticEventProfile() {
+	}
+
+	/**
+	 * Computes the values of the inputs of a device
+	 * 
+	 * @param device
+	 *            The synthetic device. Its digital inputs come first, followed by its analog inputs
+	 * @param timeNanos
+	 *            The time elapsed since the start of the event source
+	 * @param values
+	 *            The values indexed by input ordinal, holding the values of the previous poll on entry
+	 */
+	public abstract void computeValues(SyntheticInputDevice device, long timeNanos, float[] values);
+
+	/**
+	 * Returns the phase of a periodic signal, in the range [0,1)
+	 */
+	protected static double getPhase(long timeNanos, double cyclesPerSecond, double phaseOffset) {
+		double cycles = timeNanos * cyclesPerSecond / 1.0e9 + phaseOffset;
+		return cycles - Math.floor(cycles);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputValueRange;
+
+/**
+ * Input of a synthetic device
+ */
+public class SyntheticInput extends Input {
+
+	private boolean analog;
+
+	SyntheticInput(SyntheticInputDevice device, String identifier, boolean analog) {
+		super(device, identifier, identifier);
+		this.analog = analog;
+	}
+
+	@Override
+	public boolean isAnalog() {
+		return analog;
+	}
+
+	@Override
+	public boolean isRelative() {
+		return false;
+	}
+
+	@Override
+	public InputValueRange getValueRange() {
+		if (isDigital()) {
+			return new InputValueRange(0, 1.0f);
+		} else {
+			return new InputValueRange(-1.0f, 1.0f);
+		}
+	}
+
+	@Override
+	public SyntheticInputDevice getDevice() {
+		return (SyntheticInputDevice) super.getDevice();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+import java.util.List;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputDeviceState;
+
+/**
+ * Virtual gamepad of a synthetic event source, whose input values are driven by a profile
+ * <p>
+ * The digital inputs, identified as <code>button-0</code>, <code>button-1</code>, ..., come first. They are followed
+ * by the analog inputs, identified as <code>axis-0</code>, <code>axis-1</code>, ...
+ * </p>
+ * 
+ * @see SyntheticEventProfile
+ */
+public class SyntheticInputDevice extends InputDevice {
+
+	private int index;
+
+	private int digitalInputCount;
+
+	private int analogInputCount;
+
+	private volatile SyntheticEventProfile profile;
+
+	private float[] values; // current values by input ordinal
+
+	private float[] previousValues; // values of the previous poll by input ordinal
+
+	private InputDeviceState state;
+
+	SyntheticInputDevice(int index, int digitalInputCount, int analogInputCount, SyntheticEventProfile profile) {
+		super("Synthetic device " + index, "Synthetic-" + index);
+		this.index = index;
+		this.digitalInputCount = digitalInputCount;
+		this.analogInputCount = analogInputCount;
+		this.profile = profile;
+		this.values = new float[digitalInputCount + analogInputCount];
+		this.previousValues = new float[values.length];
+		this.state = new InputDeviceState(this, values.length);
+	}
+
+	@Override
+	protected List<Input> enumerateInputs() {
+		List<Input> inputs = new Vector<Input>(getDigitalInputCount() + getAnalogInputCount());
+		for (int i = 0; i < getDigitalInputCount(); i++) {
+			inputs.add(new SyntheticInput(this, "button-" + i, false));
+		}
+		for (int i = 0; i < getAnalogInputCount(); i++) {
+			inputs.add(new SyntheticInput(this, "axis-" + i, true));
+		}
+		return inputs;
+	}
+
+	@Override
+	public String getTypeString() {
+		return "Synthetic";
+	}
+
+	@Override
+	public boolean isTypeMouse() {
+		return false;
+	}
+
+	@Override
+	public boolean isTypeKeyboard() {
+		return false;
+	}
+
+	@Override
+	public boolean isTypeStick() {
+		return false;
+	}
+
+	@Override
+	public boolean isTypeGamepad() {
+		return true;
+	}
+
+	@Override
+	public boolean isTypeUnknown() {
+		return false;
+	}
+
+	/**
+	 * Returns the position of this device within the devices of its event source
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public int getDigitalInputCount() {
+		return digitalInputCount;
+	}
+
+	public int getAnalogInputCount() {
+		return analogInputCount;
+	}
+
+	public SyntheticEventProfile getProfile() {
+		return profile;
+	}
+
+	public void setProfile(SyntheticEventProfile profile) {
+		if (profile == null)
+			throw new NullPointerException("Profile cannot be null");
+		this.profile = profile;
+	}
+
+	float[] getValues() {
+		return values;
+	}
+
+	float[] getPreviousValues() {
+		return previousValues;
+	}
+
+	InputDeviceState getState() {
+		return state;
+	}
+
+}
\ No newline at end of file
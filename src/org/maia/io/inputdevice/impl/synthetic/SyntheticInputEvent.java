@@ -0,0 +1,22 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputEvent;
+
+/**
+ * Reusable event of a synthetic event source
+ */
+class SyntheticInputEvent extends InputEvent {
+
+	public SyntheticInputEvent() {
+		super(null, 0f);
+	}
+
+	public void reuse(Input input, float value, long creationTimeNanos) {
+		setInput(input);
+		setValue(value);
+		setCreationTime(System.currentTimeMillis());
+		setCreationTimeNanos(creationTimeNanos);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package org.maia.io.inputdevice.impl.synthetic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputDeviceFilter;
+import org.maia.io.inputdevice.InputDeviceState;
+import org.maia.io.inputdevice.InputEvent;
+import org.maia.io.inputdevice.InputEventSource;
+import org.maia.io.inputdevice.InputFilter;
+
+/**
+ * Event source simulating a number of virtual gamepads, for driving the input pipeline without input device hardware
+ * <p>
+ * Every device has the same number of digital and analog inputs, whose values are computed on every poll by the
+ * {@link SyntheticEventProfile} of the device. An event is emitted for every value that changed since the previous
+ * poll. Events are reused over poll cycles, so that polling does not allocate in steady state.
+ * </p>
+ * 
+ * @see ButtonMashingProfile
+ * @see StickSweepProfile
+ * @see IdleNoiseProfile
+ */
+public class SyntheticInputEventSource extends InputEventSource {
+
+	private List<SyntheticInputDevice> devices;
+
+	private List<InputEvent> events; // reusable collection of events
+
+	private List<SyntheticInputEvent> eventPool; // reusable events
+
+	private long startTimeNanos = -1L; // time of the first poll, -1 before
+
+	private long generatedEventCount;
+
+	public SyntheticInputEventSource(int deviceCount, int inputCount, SyntheticEventProfile profile) {
+		this(deviceCount, inputCount, inputCount, profile);
+	}
+
+	public SyntheticInputEventSource(int deviceCount, int digitalInputCount, int analogInputCount,
+			SyntheticEventProfile profile) {
+		this(deviceCount, digitalInputCount, analogInputCount, profile, InputDeviceFilter.ACCEPT_ALL,
+				InputFilter.ACCEPT_ALL);
+	}
+
+	public SyntheticInputEventSource(int deviceCount, int digitalInputCount, int analogInputCount,
+			SyntheticEventProfile profile, InputDeviceFilter deviceFilter, InputFilter inputFilter) {
+		super(deviceFilter, inputFilter);
+		if (deviceCount < 0 || digitalInputCount < 0 || analogInputCount < 0)
+			throw new IllegalArgumentException("Counts cannot be negative: " + deviceCount + ", "
+					+ digitalInputCount + ", " + analogInputCount);
+		if (profile == null)
+			throw new NullPointerException("Profile cannot be null");
+		this.devices = new Vector<SyntheticInputDevice>(deviceCount);
+		for (int i = 0; i < deviceCount; i++) {
+			devices.add(new SyntheticInputDevice(i, digitalInputCount, analogInputCount, profile));
+		}
+		this.events = new ArrayList<InputEvent>();
+		this.eventPool = new ArrayList<SyntheticInputEvent>();
+		setKnownInputDevices(getInputDevices());
+	}
+
+	@Override
+	public InputFilter createExplicitUserGestureInputFilter() {
+		return InputFilter.ACCEPT_ALL;
+	}
+
+	@Override
+	public synchronized List<InputEvent> pollEvents() {
+		beginPollCycle();
+		List<InputEvent> events = getEvents();
+		events.clear();
+		long now = System.nanoTime();
+		if (startTimeNanos < 0) {
+			startTimeNanos = now;
+		}
+		int poolIndex = 0;
+		for (int d = 0; d < devices.size(); d++) {
+			SyntheticInputDevice device = devices.get(d);
+			if (getDeviceFilter().accept(device)) {
+				float[] values = device.getValues();
+				float[] previousValues = device.getPreviousValues();
+				System.arraycopy(values, 0, previousValues, 0, values.length);
+				device.getProfile().computeValues(device, now - startTimeNanos, values);
+				updateState(device.getState(), values);
+				List<Input> inputs = device.getInputs();
+				for (int i = 0; i < values.length; i++) {
+					if (values[i] != previousValues[i]) {
+						Input input = inputs.get(i);
+						if (getInputFilter().accept(input)) {
+							SyntheticInputEvent event = null;
+							if (poolIndex < getEventPool().size()) {
+								event = getEventPool().get(poolIndex);
+							} else {
+								event = new SyntheticInputEvent();
+								getEventPool().add(event);
+							}
+							poolIndex++;
+							event.reuse(input, values[i], now);
+							stampEvent(event);
+							events.add(event);
+						}
+					}
+				}
+			}
+		}
+		generatedEventCount += events.size();
+		return events;
+	}
+
+	private void updateState(InputDeviceState state, float[] values) {
+		state.beginUpdate();
+		for (int i = 0; i < values.length; i++) {
+			state.setValue(i, values[i]);
+		}
+		state.endUpdate();
+	}
+
+	/**
+	 * Devices are fixed for the lifetime of the source
+	 */
+	@Override
+	public void scanInputDevices() {
+		updateKnownInputDevices(getInputDevices());
+	}
+
+	@Override
+	public List<InputDevice> getInputDevices() {
+		return new Vector<InputDevice>(devices);
+	}
+
+	@Override
+	public InputDeviceState getInputDeviceState(InputDevice device) {
+		for (SyntheticInputDevice candidate : devices) {
+			if (candidate.equals(device))
+				return candidate.getState();
+		}
+		return null;
+	}
+
+	/**
+	 * Changes the profile of all devices
+	 * 
+	 * @see SyntheticInputDevice#setProfile(SyntheticEventProfile)
+	 */
+	public synchronized void setProfile(SyntheticEventProfile profile) {
+		for (SyntheticInputDevice device : devices) {
+			device.setProfile(profile);
+		}
+	}
+
+	/**
+	 * Returns the number of events emitted since the source was created
+	 */
+	public synchronized long getGeneratedEventCount() {
+		return generatedEventCount;
+	}
+
+	private List<InputEvent> getEvents() {
+		return events;
+	}
+
+	private List<SyntheticInputEvent> getEventPool() {
+		return eventPool;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package org.maia.io.inputdevice.recorder;
+
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary format of the segment files written by the {@link InputFlightRecorder}
+ * <p>
+ * A segment starts with a header of {@link #HEADER_SIZE} bytes, followed by records of {@link #RECORD_SIZE} bytes. All
+ * numbers are little-endian. The header holds:
+ * </p>
+ * <ul>
+ * <li>the magic bytes <code>MAIAIFR</code> followed by a zero byte</li>
+ * <li>the format version, header size, record size and segment number, as 32-bit integers</li>
+ * <li>the wall-clock time in milliseconds and the monotonic time in nanoseconds at which the segment was started, as
+ * 64-bit integers, relating the nanosecond timestamps of the records to wall-clock time</li>
+ * <li>the number of valid records in the segment, as a 64-bit integer</li>
+ * <li>a textual description of the record layout and the name of the dictionary file, preceded by its length as a
+ * 16-bit integer</li>
+ * </ul>
+ * <p>
+ * Device and input indices in the records refer to the dictionary file, a UTF-8 text file with one tab-separated
+ * entry per line:
+ * </p>
+ * <ul>
+ * <li><code>device &lt;index&gt; &lt;identifier&gt; &lt;type&gt; &lt;typeString&gt; &lt;name&gt;</code></li>
+ * <li><code>input &lt;deviceIndex&gt; &lt;inputIndex&gt; &lt;identifier&gt; &lt;analog|digital&gt;
+ * &lt;absolute|relative&gt; &lt;name&gt;</code></li>
+ * </ul>
+ */
+public final class InputFlightRecordFormat {
+
+	public static final byte[] MAGIC = { 'M', 'A', 'I', 'A', 'I', 'F', 'R', 0 };
+
+	public static final int VERSION = 1;
+
+	public static final int HEADER_SIZE = 256;
+
+	public static final int RECORD_SIZE = 32;
+
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	public static final Charset CHARSET = StandardCharsets.UTF_8;
+
+	public static final String RECORD_LAYOUT = "creationTimeNanos:i64,recordTimeNanos:i64,sequenceNumber:i64,"
+			+ "deviceIndex:u16,inputIndex:u16,value:f32";
+
+	public static final String SEGMENT_FILE_EXTENSION = ".ifr";
+
+	public static final String DICTIONARY_FILE_NAME = "dictionary.txt";
+
+	public static final String DEVICE_ENTRY = "device";
+
+	public static final String INPUT_ENTRY = "input";
+
+	// Header offsets
+
+	public static final int HEADER_VERSION_OFFSET = 8;
+
+	public static final int HEADER_HEADER_SIZE_OFFSET = 12;
+
+	public static final int HEADER_RECORD_SIZE_OFFSET = 16;
+
+	public static final int HEADER_SEGMENT_NUMBER_OFFSET = 20;
+
+	public static final int HEADER_START_MILLIS_OFFSET = 24;
+
+	public static final int HEADER_START_NANOS_OFFSET = 32;
+
+	public static final int HEADER_RECORD_COUNT_OFFSET = 40;
+
+	public static final int HEADER_DESCRIPTION_OFFSET = 48;
+
+	// Record offsets
+
+	public static final int RECORD_CREATION_NANOS_OFFSET = 0;
+
+	public static final int RECORD_RECORD_NANOS_OFFSET = 8;
+
+	public static final int RECORD_SEQUENCE_NUMBER_OFFSET = 16;
+
+	public static final int RECORD_DEVICE_INDEX_OFFSET = 24;
+
+	public static final int RECORD_INPUT_INDEX_OFFSET = 26;
+
+	public static final int RECORD_VALUE_OFFSET = 28;
+
+	public static final int MAXIMUM_INDEX = 0xffff;
+
+	private InputFlightRecordFormat() {
+	}
+
+	public static String getSegmentFileName(int segmentNumber) {
+		return String.format("segment-%08d", segmentNumber) + SEGMENT_FILE_EXTENSION;
+	}
+
+	public static String getHeaderDescription() {
+		return "layout=" + RECORD_LAYOUT + ";order=LE;dictionary=" + DICTIONARY_FILE_NAME;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,324 @@
+package org.maia.io.inputdevice.recorder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Reads back the segments and dictionary written by an {@link InputFlightRecorder}
+ * <p>
+ * The records of all segments in the directory are traversed in the order they were recorded, by means of
+ * {@link #nextRecord()}. The fields of the current record are then available through the getters. Records referring
+ * to a device that is missing from the dictionary, as can happen when the recording was not stopped properly, are
+ * skipped.
+ * </p>
+ *
+ * @see InputFlightRecordFormat
+ */
+public class InputFlightRecordReader {
+
+	private File directory;
+
+	private Map<Integer, DeviceEntry> devices; // by device index
+
+	private List<File> segmentFiles; // in recording order
+
+	private int segmentIndex; // index of the current segment file
+
+	private ByteBuffer segment; // current segment, or null before the first record
+
+	private long segmentRecordCount;
+
+	private long segmentRecordIndex; // index of the current record in the current segment
+
+	private long segmentStartMillis;
+
+	private long segmentStartNanos;
+
+	public InputFlightRecordReader(File directory) throws IOException {
+		if (directory == null)
+			throw new NullPointerException("Directory cannot be null");
+		this.directory = directory;
+		this.devices = readDictionary(new File(directory, InputFlightRecordFormat.DICTIONARY_FILE_NAME));
+		this.segmentFiles = listSegmentFiles(directory);
+		rewind();
+	}
+
+	private static Map<Integer, DeviceEntry> readDictionary(File file) throws IOException {
+		Map<Integer, DeviceEntry> devices = new HashMap<Integer, DeviceEntry>();
+		if (!file.exists())
+			return devices; // nothing was recorded
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(file), InputFlightRecordFormat.CHARSET))) {
+			String line = null;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t", -1);
+				if (fields[0].equals(InputFlightRecordFormat.DEVICE_ENTRY) && fields.length >= 6) {
+					DeviceEntry device = new DeviceEntry(Integer.parseInt(fields[1]), fields[2], fields[3], fields[4],
+							fields[5]);
+					devices.put(device.getIndex(), device);
+				} else if (fields[0].equals(InputFlightRecordFormat.INPUT_ENTRY) && fields.length >= 7) {
+					DeviceEntry device = devices.get(Integer.parseInt(fields[1]));
+					if (device == null)
+						throw new IOException("Input entry precedes its device: " + line);
+					device.getInputs().add(new InputEntry(device, Integer.parseInt(fields[2]), fields[3],
+							fields[4].equals("analog"), fields[5].equals("relative"), fields[6]));
+				}
+			}
+		}
+		return devices;
+	}
+
+	private static List<File> listSegmentFiles(File directory) throws IOException {
+		File[] files = directory.listFiles();
+		if (files == null)
+			throw new IOException("Not a directory: " + directory);
+		List<File> segmentFiles = new Vector<File>();
+		for (File file : files) {
+			if (file.getName().endsWith(InputFlightRecordFormat.SEGMENT_FILE_EXTENSION)) {
+				segmentFiles.add(file);
+			}
+		}
+		File[] sortedFiles = segmentFiles.toArray(new File[segmentFiles.size()]);
+		Arrays.sort(sortedFiles); // zero-padded segment numbers sort by name
+		return Arrays.asList(sortedFiles);
+	}
+
+	/**
+	 * Moves back to before the first record
+	 */
+	public void rewind() {
+		this.segmentIndex = -1;
+		this.segment = null;
+		this.segmentRecordCount = 0;
+		this.segmentRecordIndex = -1;
+	}
+
+	/**
+	 * Advances to the next record
+	 *
+	 * @return <code>true</code> when there is a next record, <code>false</code> when all records have been read
+	 * @throws IOException
+	 *             When a segment cannot be read or is not in the expected format
+	 */
+	public boolean nextRecord() throws IOException {
+		while (true) {
+			if (segmentRecordIndex + 1 < segmentRecordCount) {
+				segmentRecordIndex++;
+				if (getDevice(getDeviceIndex()) != null)
+					return true;
+			} else if (segmentIndex + 1 < getSegmentFiles().size()) {
+				openSegment(getSegmentFiles().get(++segmentIndex));
+			} else {
+				return false;
+			}
+		}
+	}
+
+	private void openSegment(File file) throws IOException {
+		MappedByteBuffer buffer = null;
+		try (FileChannel channel = FileChannel.open(file.toPath())) {
+			buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+		buffer.order(InputFlightRecordFormat.BYTE_ORDER);
+		for (int i = 0; i < InputFlightRecordFormat.MAGIC.length; i++) {
+			if (buffer.get(i) != InputFlightRecordFormat.MAGIC[i])
+				throw new IOException("Not a flight record segment: " + file);
+		}
+		int version = buffer.getInt(InputFlightRecordFormat.HEADER_VERSION_OFFSET);
+		if (version != InputFlightRecordFormat.VERSION)
+			throw new IOException("Unsupported flight record version " + version + ": " + file);
+		int headerSize = buffer.getInt(InputFlightRecordFormat.HEADER_HEADER_SIZE_OFFSET);
+		int recordSize = buffer.getInt(InputFlightRecordFormat.HEADER_RECORD_SIZE_OFFSET);
+		if (headerSize != InputFlightRecordFormat.HEADER_SIZE || recordSize != InputFlightRecordFormat.RECORD_SIZE)
+			throw new IOException("Unexpected header or record size: " + file);
+		long capacity = (buffer.capacity() - InputFlightRecordFormat.HEADER_SIZE) / InputFlightRecordFormat.RECORD_SIZE;
+		this.segment = buffer;
+		this.segmentRecordCount = Math.min(buffer.getLong(InputFlightRecordFormat.HEADER_RECORD_COUNT_OFFSET),
+				capacity);
+		this.segmentRecordIndex = -1;
+		this.segmentStartMillis = buffer.getLong(InputFlightRecordFormat.HEADER_START_MILLIS_OFFSET);
+		this.segmentStartNanos = buffer.getLong(InputFlightRecordFormat.HEADER_START_NANOS_OFFSET);
+	}
+
+	private int getRecordOffset() {
+		return InputFlightRecordFormat.HEADER_SIZE + (int) segmentRecordIndex * InputFlightRecordFormat.RECORD_SIZE;
+	}
+
+	public long getCreationTimeNanos() {
+		return segment.getLong(getRecordOffset() + InputFlightRecordFormat.RECORD_CREATION_NANOS_OFFSET);
+	}
+
+	/**
+	 * Returns the wall-clock creation time of the current record, derived from the start time of its segment
+	 */
+	public long getCreationTime() {
+		return segmentStartMillis + (getCreationTimeNanos() - segmentStartNanos) / 1000000L;
+	}
+
+	public long getRecordTimeNanos() {
+		return segment.getLong(getRecordOffset() + InputFlightRecordFormat.RECORD_RECORD_NANOS_OFFSET);
+	}
+
+	public long getSequenceNumber() {
+		return segment.getLong(getRecordOffset() + InputFlightRecordFormat.RECORD_SEQUENCE_NUMBER_OFFSET);
+	}
+
+	public int getDeviceIndex() {
+		return segment.getShort(getRecordOffset() + InputFlightRecordFormat.RECORD_DEVICE_INDEX_OFFSET) & 0xffff;
+	}
+
+	public int getInputIndex() {
+		return segment.getShort(getRecordOffset() + InputFlightRecordFormat.RECORD_INPUT_INDEX_OFFSET) & 0xffff;
+	}
+
+	public float getValue() {
+		return segment.getFloat(getRecordOffset() + InputFlightRecordFormat.RECORD_VALUE_OFFSET);
+	}
+
+	public DeviceEntry getDevice(int deviceIndex) {
+		return devices.get(deviceIndex);
+	}
+
+	/**
+	 * Returns the dictionary entries of all recorded devices, in order of their index
+	 */
+	public List<DeviceEntry> getDevices() {
+		List<DeviceEntry> result = new Vector<DeviceEntry>(devices.size());
+		for (int i = 0; result.size() < devices.size() && i <= InputFlightRecordFormat.MAXIMUM_INDEX; i++) {
+			DeviceEntry device = devices.get(i);
+			if (device != null) {
+				result.add(device);
+			}
+		}
+		return result;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	private List<File> getSegmentFiles() {
+		return segmentFiles;
+	}
+
+	/**
+	 * Dictionary entry of a recorded device
+	 */
+	public static class DeviceEntry {
+
+		private int index;
+
+		private String identifier;
+
+		private String type; // one of mouse, keyboard, stick, gamepad, unknown or other
+
+		private String typeString;
+
+		private String name;
+
+		private List<InputEntry> inputs;
+
+		private DeviceEntry(int index, String identifier, String type, String typeString, String name) {
+			this.index = index;
+			this.identifier = identifier;
+			this.type = type;
+			this.typeString = typeString;
+			this.name = name;
+			this.inputs = new Vector<InputEntry>();
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public String getTypeString() {
+			return typeString;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the inputs of the device, in order of their index
+		 */
+		public List<InputEntry> getInputs() {
+			return inputs;
+		}
+
+	}
+
+	/**
+	 * Dictionary entry of an input of a recorded device
+	 */
+	public static class InputEntry {
+
+		private DeviceEntry device;
+
+		private int index;
+
+		private String identifier;
+
+		private boolean analog;
+
+		private boolean relative;
+
+		private String name;
+
+		private InputEntry(DeviceEntry device, int index, String identifier, boolean analog, boolean relative,
+				String name) {
+			this.device = device;
+			this.index = index;
+			this.identifier = identifier;
+			this.analog = analog;
+			this.relative = relative;
+			this.name = name;
+		}
+
+		public DeviceEntry getDevice() {
+			return device;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		public boolean isAnalog() {
+			return analog;
+		}
+
+		public boolean isRelative() {
+			return relative;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+	}
+
+}
\ No newline at end of file
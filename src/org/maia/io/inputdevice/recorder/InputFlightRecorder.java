@@ -0,0 +1,446 @@
+package org.maia.io.inputdevice.recorder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputEvent;
+
+/**
+ * Records every input event into memory-mapped segment files, for post-mortem analysis
+ * <p>
+ * Recording an event only writes a fixed-size record into a mapped buffer: it takes no lock, performs no system calls
+ * and does not allocate memory. Mapping and pre-touching the next segment, writing the dictionary of devices and
+ * inputs, and deleting the oldest segments beyond <em>maximumSegmentCount</em> are done by a background thread. When
+ * the next segment is not ready in time, events are dropped and counted rather than waiting for it.
+ * </p>
+ * <p>
+ * Events are recorded by a single thread at a time, which is the case for the dispatching thread as well as for
+ * external polling under the lock of the event source. Devices should be registered up front with
+ * {@link #registerDevices(List)}. Events of a device that is not registered yet are dropped until the background
+ * thread has registered it.
+ * </p>
+ * 
+ * @see InputFlightRecordFormat
+ * @see InputFlightRecordReader
+ * @see org.maia.io.inputdevice.InputEventGateway#attachFlightRecorder(InputFlightRecorder)
+ */
+public class InputFlightRecorder {
+
+	private File directory;
+
+	private int segmentSize; // in bytes, including the header
+
+	private int maximumSegmentCount; // oldest segments are deleted beyond this count
+
+	private MappedByteBuffer currentSegment;
+
+	private long currentSegmentRecordCount;
+
+	private volatile MappedByteBuffer nextSegment; // prepared by the maintenance thread
+
+	private int lastSegmentNumber; // owned by the maintenance thread
+
+	private List<InputDevice> registeredDevices; // in order of device index, guarded by the recorder lock
+
+	private volatile Map<String, Integer> deviceIndices; // by device identifier, replaced on every registration
+
+	private Queue<InputDevice> pendingDictionaryDevices; // devices not yet written to the dictionary
+
+	private volatile InputDevice unregisteredDevice; // last device met by the recording thread without an index
+
+	private Maintenance maintenance;
+
+	private volatile boolean recording;
+
+	private AtomicLong recordedEventCount; // written by the recording thread only
+
+	private AtomicLong droppedEventCount; // events that could not be recorded for lack of a segment or device index
+
+	private static final int PAGE_SIZE = 4096;
+
+	public static final int DEFAULT_SEGMENT_SIZE = InputFlightRecordFormat.HEADER_SIZE
+			+ 1024 * 1024 * InputFlightRecordFormat.RECORD_SIZE; // 1M records
+
+	public static final int DEFAULT_MAXIMUM_SEGMENT_COUNT = 8;
+
+	public InputFlightRecorder(File directory) {
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAXIMUM_SEGMENT_COUNT);
+	}
+
+	public InputFlightRecorder(File directory, int segmentSize, int maximumSegmentCount) {
+		if (directory == null)
+			throw new NullPointerException("Directory cannot be null");
+		if (segmentSize < InputFlightRecordFormat.HEADER_SIZE + InputFlightRecordFormat.RECORD_SIZE)
+			throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+		if (maximumSegmentCount < 2)
+			throw new IllegalArgumentException("Must keep at least 2 segments: " + maximumSegmentCount);
+		this.directory = directory;
+		int recordCapacity = (segmentSize - InputFlightRecordFormat.HEADER_SIZE) / InputFlightRecordFormat.RECORD_SIZE;
+		this.segmentSize = InputFlightRecordFormat.HEADER_SIZE + recordCapacity * InputFlightRecordFormat.RECORD_SIZE;
+		this.maximumSegmentCount = maximumSegmentCount;
+		this.registeredDevices = new Vector<InputDevice>();
+		this.deviceIndices = Collections.emptyMap();
+		this.pendingDictionaryDevices = new ConcurrentLinkedQueue<InputDevice>();
+		this.recordedEventCount = new AtomicLong();
+		this.droppedEventCount = new AtomicLong();
+	}
+
+	/**
+	 * Assigns device indices to the given devices ahead of their first event, so that recording their events does not
+	 * have to wait for the background thread. Devices remain registered across recordings
+	 */
+	public synchronized void registerDevices(List<InputDevice> devices) {
+		for (int i = 0; i < devices.size(); i++) {
+			registerDevice(devices.get(i));
+		}
+	}
+
+	public synchronized void registerDevice(InputDevice device) {
+		if (device == null)
+			throw new NullPointerException("Device cannot be null");
+		String identifier = device.getIdentifier();
+		if (!getDeviceIndices().containsKey(identifier)) {
+			Map<String, Integer> deviceIndices = new HashMap<String, Integer>(getDeviceIndices());
+			deviceIndices.put(identifier, getRegisteredDevices().size());
+			getRegisteredDevices().add(device);
+			this.deviceIndices = deviceIndices;
+			if (isRecording()) {
+				getPendingDictionaryDevices().add(device);
+				getMaintenance().wakeUp();
+			}
+		}
+	}
+
+	/**
+	 * Starts recording into a new sequence of segments
+	 * 
+	 * @throws IOException
+	 *             When the directory or the first segment cannot be created
+	 */
+	public synchronized void start() throws IOException {
+		if (isRecording())
+			return;
+		if (getMaintenance() != null)
+			throw new IllegalStateException("Recorder is still stopping");
+		if (!getDirectory().isDirectory() && !getDirectory().mkdirs())
+			throw new IOException("Could not create directory " + getDirectory());
+		deleteRecording();
+		getPendingDictionaryDevices().clear();
+		getPendingDictionaryDevices().addAll(getRegisteredDevices()); // the new dictionary lists all registered devices
+		this.lastSegmentNumber = 0;
+		this.currentSegment = createSegment();
+		this.currentSegmentRecordCount = 0;
+		this.nextSegment = null;
+		this.maintenance = new Maintenance();
+		this.recording = true;
+		getMaintenance().start();
+	}
+
+	/**
+	 * Stops recording, after which the segments and dictionary on disk are complete
+	 * <p>
+	 * The maintenance thread is joined without holding the lock of the recorder, as it needs that lock to complete the
+	 * dictionary
+	 * </p>
+	 */
+	public void stop() {
+		Maintenance maintenance = null;
+		synchronized (this) {
+			if (!isRecording())
+				return;
+			this.recording = false;
+			maintenance = getMaintenance();
+			maintenance.stopMaintenance();
+		}
+		try {
+			maintenance.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			getCurrentSegment().force();
+			if (nextSegment != null) {
+				nextSegment = null;
+				int unusedSegmentNumber = lastSegmentNumber--;
+				new File(getDirectory(), InputFlightRecordFormat.getSegmentFileName(unusedSegmentNumber)).delete();
+			}
+			this.maintenance = null;
+		}
+	}
+
+	/**
+	 * Appends a record of the given event to the current segment. Does not block, and must not be called by more than
+	 * one thread at a time
+	 */
+	public void record(InputEvent event) {
+		if (!isRecording())
+			return;
+		MappedByteBuffer segment = getCurrentSegment();
+		if (segment.remaining() < InputFlightRecordFormat.RECORD_SIZE) {
+			segment = switchToNextSegment();
+			if (segment == null) {
+				countDroppedEvent();
+				return;
+			}
+		}
+		Input input = event.getInput();
+		Integer index = getDeviceIndices().get(input.getDevice().getIdentifier());
+		if (index == null) {
+			unregisteredDevice = input.getDevice(); // picked up by the maintenance thread
+			countDroppedEvent();
+			return;
+		}
+		int deviceIndex = index.intValue();
+		int inputIndex = input.getOrdinal();
+		if (deviceIndex > InputFlightRecordFormat.MAXIMUM_INDEX || inputIndex < 0
+				|| inputIndex > InputFlightRecordFormat.MAXIMUM_INDEX) {
+			countDroppedEvent();
+			return;
+		}
+		int offset = segment.position();
+		segment.putLong(offset + InputFlightRecordFormat.RECORD_CREATION_NANOS_OFFSET, event.getCreationTimeNanos());
+		segment.putLong(offset + InputFlightRecordFormat.RECORD_RECORD_NANOS_OFFSET, System.nanoTime());
+		segment.putLong(offset + InputFlightRecordFormat.RECORD_SEQUENCE_NUMBER_OFFSET, event.getSequenceNumber());
+		segment.putShort(offset + InputFlightRecordFormat.RECORD_DEVICE_INDEX_OFFSET, (short) deviceIndex);
+		segment.putShort(offset + InputFlightRecordFormat.RECORD_INPUT_INDEX_OFFSET, (short) inputIndex);
+		segment.putFloat(offset + InputFlightRecordFormat.RECORD_VALUE_OFFSET, event.getValue());
+		segment.position(offset + InputFlightRecordFormat.RECORD_SIZE);
+		segment.putLong(InputFlightRecordFormat.HEADER_RECORD_COUNT_OFFSET, ++currentSegmentRecordCount);
+		recordedEventCount.lazySet(recordedEventCount.get() + 1L); // single writer
+	}
+
+	private void countDroppedEvent() {
+		droppedEventCount.lazySet(droppedEventCount.get() + 1L); // single writer
+	}
+
+	private MappedByteBuffer switchToNextSegment() {
+		MappedByteBuffer segment = nextSegment;
+		if (segment != null) {
+			nextSegment = null; // the maintenance thread prepares the segment after this one on its next round
+			this.currentSegment = segment;
+			this.currentSegmentRecordCount = 0;
+		}
+		return segment;
+	}
+
+	private MappedByteBuffer createSegment() throws IOException {
+		int segmentNumber = ++lastSegmentNumber;
+		File file = new File(getDirectory(), InputFlightRecordFormat.getSegmentFileName(segmentNumber));
+		MappedByteBuffer segment = null;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(getSegmentSize());
+			segment = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, getSegmentSize());
+		}
+		segment.order(InputFlightRecordFormat.BYTE_ORDER);
+		segment.put(InputFlightRecordFormat.MAGIC);
+		segment.putInt(InputFlightRecordFormat.HEADER_VERSION_OFFSET, InputFlightRecordFormat.VERSION);
+		segment.putInt(InputFlightRecordFormat.HEADER_HEADER_SIZE_OFFSET, InputFlightRecordFormat.HEADER_SIZE);
+		segment.putInt(InputFlightRecordFormat.HEADER_RECORD_SIZE_OFFSET, InputFlightRecordFormat.RECORD_SIZE);
+		segment.putInt(InputFlightRecordFormat.HEADER_SEGMENT_NUMBER_OFFSET, segmentNumber);
+		segment.putLong(InputFlightRecordFormat.HEADER_START_MILLIS_OFFSET, System.currentTimeMillis());
+		segment.putLong(InputFlightRecordFormat.HEADER_START_NANOS_OFFSET, System.nanoTime());
+		segment.putLong(InputFlightRecordFormat.HEADER_RECORD_COUNT_OFFSET, 0L);
+		byte[] description = InputFlightRecordFormat.getHeaderDescription().getBytes(InputFlightRecordFormat.CHARSET);
+		segment.position(InputFlightRecordFormat.HEADER_DESCRIPTION_OFFSET);
+		segment.putShort((short) description.length);
+		segment.put(description);
+		prefault(segment);
+		segment.position(InputFlightRecordFormat.HEADER_SIZE);
+		return segment;
+	}
+
+	/**
+	 * Writes to every page of the segment beyond the header, so that the recording thread does not take page faults on
+	 * the sparse file
+	 */
+	private static void prefault(MappedByteBuffer segment) {
+		for (int offset = InputFlightRecordFormat.HEADER_SIZE; offset < segment.capacity(); offset += PAGE_SIZE) {
+			segment.put(offset, (byte) 0);
+		}
+	}
+
+	/**
+	 * Deletes the segments and dictionary of a previous recording in the directory
+	 */
+	private void deleteRecording() {
+		File[] files = getDirectory().listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.getName().endsWith(InputFlightRecordFormat.SEGMENT_FILE_EXTENSION)) {
+					file.delete();
+				}
+			}
+		}
+		new File(getDirectory(), InputFlightRecordFormat.DICTIONARY_FILE_NAME).delete();
+	}
+
+	private void deleteObsoleteSegments() {
+		int segmentNumber = lastSegmentNumber - getMaximumSegmentCount();
+		while (segmentNumber > 0) {
+			File file = new File(getDirectory(), InputFlightRecordFormat.getSegmentFileName(segmentNumber));
+			if (!file.exists())
+				break;
+			file.delete();
+			segmentNumber--;
+		}
+	}
+
+	private void writePendingDictionaryEntries() throws IOException {
+		if (getPendingDictionaryDevices().isEmpty())
+			return;
+		File file = new File(getDirectory(), InputFlightRecordFormat.DICTIONARY_FILE_NAME);
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true),
+				InputFlightRecordFormat.CHARSET)) {
+			InputDevice device = null;
+			while ((device = getPendingDictionaryDevices().poll()) != null) {
+				writeDictionaryEntries(device, writer);
+			}
+		}
+	}
+
+	private void writeDictionaryEntries(InputDevice device, Writer writer) throws IOException {
+		Integer deviceIndex = getDeviceIndices().get(device.getIdentifier());
+		writer.write(InputFlightRecordFormat.DEVICE_ENTRY + '\t' + deviceIndex + '\t' + device.getIdentifier() + '\t'
+				+ getDeviceType(device) + '\t' + device.getTypeString() + '\t' + device.getName() + '\n');
+		List<Input> inputs = device.getInputs();
+		for (int i = 0; i < inputs.size(); i++) {
+			Input input = inputs.get(i);
+			writer.write(InputFlightRecordFormat.INPUT_ENTRY + '\t' + deviceIndex + '\t' + i + '\t'
+					+ input.getIdentifier() + '\t' + (input.isAnalog() ? "analog" : "digital") + '\t'
+					+ (input.isRelative() ? "relative" : "absolute") + '\t' + input.getName() + '\n');
+		}
+	}
+
+	private static String getDeviceType(InputDevice device) {
+		if (device.isTypeMouse()) {
+			return "mouse";
+		} else if (device.isTypeKeyboard()) {
+			return "keyboard";
+		} else if (device.isTypeStick()) {
+			return "stick";
+		} else if (device.isTypeGamepad()) {
+			return "gamepad";
+		} else if (device.isTypeUnknown()) {
+			return "unknown";
+		} else {
+			return "other";
+		}
+	}
+
+	private void log(String message) {
+		System.out.println(this.getClass().getSimpleName() + " - " + message);
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	public int getMaximumSegmentCount() {
+		return maximumSegmentCount;
+	}
+
+	private MappedByteBuffer getCurrentSegment() {
+		return currentSegment;
+	}
+
+	private List<InputDevice> getRegisteredDevices() {
+		return registeredDevices;
+	}
+
+	private Map<String, Integer> getDeviceIndices() {
+		return deviceIndices;
+	}
+
+	private Queue<InputDevice> getPendingDictionaryDevices() {
+		return pendingDictionaryDevices;
+	}
+
+	private Maintenance getMaintenance() {
+		return maintenance;
+	}
+
+	public boolean isRecording() {
+		return recording;
+	}
+
+	public long getRecordedEventCount() {
+		return recordedEventCount.get();
+	}
+
+	public long getDroppedEventCount() {
+		return droppedEventCount.get();
+	}
+
+	/**
+	 * Prepares segments, writes the dictionary and deletes old segments, away from the recording thread
+	 */
+	private class Maintenance extends Thread {
+
+		private volatile boolean stopMaintenance;
+
+		private static final long MAX_PARK_NANOS = 10000000L; // the recording thread never wakes up this thread
+
+		public Maintenance() {
+			super("InputFlightRecorderMaintenance");
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while (!stopMaintenance) {
+				maintain();
+				LockSupport.parkNanos(this, MAX_PARK_NANOS);
+			}
+			maintain();
+		}
+
+		private void maintain() {
+			try {
+				if (nextSegment == null && !stopMaintenance) {
+					nextSegment = createSegment();
+					deleteObsoleteSegments();
+				}
+				InputDevice device = unregisteredDevice;
+				if (device != null) {
+					unregisteredDevice = null;
+					registerDevice(device);
+				}
+				writePendingDictionaryEntries();
+			} catch (IOException e) {
+				log("Maintenance failed: " + e.getMessage());
+			}
+		}
+
+		public void wakeUp() {
+			LockSupport.unpark(this);
+		}
+
+		public void stopMaintenance() {
+			stopMaintenance = true;
+			wakeUp();
+		}
+
+	}
+
+}
\ No newline at end of file
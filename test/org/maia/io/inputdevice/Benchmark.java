@@ -0,0 +1,140 @@
+package org.maia.io.inputdevice;
+
+import java.text.NumberFormat;
+
+public abstract class Benchmark {
+
+	private long blackhole; // consumes the results of measured operations, so they cannot be optimized away
+
+	protected static final int DEFAULT_WARMUP_ITERATIONS = 5;
+
+	protected static final int DEFAULT_MEASUREMENT_ITERATIONS = 10;
+
+	protected static final long DEFAULT_ITERATION_NANOS = 200000000L;
+
+	private static final int INVOCATIONS_PER_CHECK = 64; // invocations between checks of the iteration time
+
+	protected Benchmark() {
+	}
+
+	public abstract void startBenchmark() throws Exception;
+
+	protected BenchmarkResult measure(String name, BenchmarkOperation operation) {
+		return measure(name, operation, DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASUREMENT_ITERATIONS,
+				DEFAULT_ITERATION_NANOS);
+	}
+
+	/**
+	 * Invokes an operation repeatedly during a number of timed iterations, of which the first ones only serve to warm
+	 * up the JVM, and reports the time per invocation over the measurement iterations
+	 */
+	protected BenchmarkResult measure(String name, BenchmarkOperation operation, int warmupIterations,
+			int measurementIterations, long iterationNanos) {
+		for (int i = 0; i < warmupIterations; i++) {
+			runIteration(operation, iterationNanos);
+		}
+		double[] nanosPerOperation = new double[measurementIterations];
+		for (int i = 0; i < measurementIterations; i++) {
+			nanosPerOperation[i] = runIteration(operation, iterationNanos);
+		}
+		BenchmarkResult result = new BenchmarkResult(name, nanosPerOperation);
+		System.out.println(result);
+		return result;
+	}
+
+	private double runIteration(BenchmarkOperation operation, long iterationNanos) {
+		long invocations = 0;
+		long sink = 0;
+		long t0 = System.nanoTime();
+		long elapsed = 0;
+		do {
+			for (int i = 0; i < INVOCATIONS_PER_CHECK; i++) {
+				sink += operation.invoke();
+			}
+			invocations += INVOCATIONS_PER_CHECK;
+			elapsed = System.nanoTime() - t0;
+		} while (elapsed < iterationNanos);
+		blackhole += sink;
+		return elapsed / (double) invocations;
+	}
+
+	protected void report(String name, long operations, long elapsedNanos) {
+		NumberFormat nf = NumberFormat.getNumberInstance();
+		nf.setMaximumFractionDigits(1);
+		double nanosPerOperation = operations > 0 ? elapsedNanos / (double) operations : 0;
+		double operationsPerSecond = elapsedNanos > 0 ? operations * 1.0e9 / elapsedNanos : 0;
+		System.out.println(name + ": " + nf.format(operationsPerSecond) + " ops/s, " + nf.format(nanosPerOperation)
+				+ " ns/op (" + operations + " ops in " + nf.format(elapsedNanos / 1.0e6) + " ms)");
+	}
+
+	protected long getBlackhole() {
+		return blackhole;
+	}
+
+	public static interface BenchmarkOperation {
+
+		/**
+		 * Performs the measured operation once
+		 * 
+		 * @return Any value derived from the work done, which is consumed by the benchmark
+		 */
+		int invoke();
+
+	}
+
+	public static class BenchmarkResult {
+
+		private String name;
+
+		private double meanNanosPerOperation;
+
+		private double standardDeviationNanos;
+
+		private double minimumNanosPerOperation;
+
+		public BenchmarkResult(String name, double[] nanosPerOperation) {
+			this.name = name;
+			double sum = 0;
+			double minimum = Double.MAX_VALUE;
+			for (double value : nanosPerOperation) {
+				sum += value;
+				minimum = Math.min(minimum, value);
+			}
+			double mean = sum / nanosPerOperation.length;
+			double squares = 0;
+			for (double value : nanosPerOperation) {
+				squares += (value - mean) * (value - mean);
+			}
+			this.meanNanosPerOperation = mean;
+			this.standardDeviationNanos = Math.sqrt(squares / nanosPerOperation.length);
+			this.minimumNanosPerOperation = minimum;
+		}
+
+		@Override
+		public String toString() {
+			NumberFormat nf = NumberFormat.getNumberInstance();
+			nf.setMaximumFractionDigits(1);
+			return getName() + ": " + nf.format(getMeanNanosPerOperation()) + " +/- "
+					+ nf.format(getStandardDeviationNanos()) + " ns/op (best "
+					+ nf.format(getMinimumNanosPerOperation()) + " ns/op)";
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public double getMeanNanosPerOperation() {
+			return meanNanosPerOperation;
+		}
+
+		public double getStandardDeviationNanos() {
+			return standardDeviationNanos;
+		}
+
+		public double getMinimumNanosPerOperation() {
+			return minimumNanosPerOperation;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package org.maia.io.inputdevice;
+
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Event source producing a fixed number of analog events per poll, spread over a number of devices
+ */
+public class BenchmarkEventSource extends InputEventSource {
+
+	private List<InputDevice> devices;
+
+	private List<InputEvent> events;
+
+	private int eventsPerPoll;
+
+	private int pollCount;
+
+	public BenchmarkEventSource(int deviceCount, int inputsPerDevice, int eventsPerPoll) {
+		super(InputDeviceFilter.ACCEPT_ALL, InputFilter.ACCEPT_ALL);
+		this.devices = new Vector<InputDevice>(deviceCount);
+		for (int i = 0; i < deviceCount; i++) {
+			devices.add(new BenchmarkInputDevice("BenchmarkDevice-" + i, inputsPerDevice));
+		}
+		this.events = new Vector<InputEvent>(eventsPerPoll);
+		this.eventsPerPoll = eventsPerPoll;
+	}
+
+	@Override
+	public InputFilter createExplicitUserGestureInputFilter() {
+		return InputFilter.ACCEPT_ALL;
+	}
+
+	@Override
+	public synchronized List<InputEvent> pollEvents() {
+		beginPollCycle();
+		events.clear();
+		pollCount++;
+		for (int i = 0; i < eventsPerPoll; i++) {
+			InputDevice device = devices.get(i % devices.size());
+			List<Input> inputs = device.getInputs();
+			Input input = inputs.get((i / devices.size()) % inputs.size());
+			InputEvent event = new InputEvent(input, (pollCount % 200) / 100f - 1f);
+			stampEvent(event);
+			events.add(event);
+		}
+		return events;
+	}
+
+	@Override
+	public void scanInputDevices() {
+		// fixed set of devices
+	}
+
+	@Override
+	public List<InputDevice> getInputDevices() {
+		return devices;
+	}
+
+	public int getEventsPerPoll() {
+		return eventsPerPoll;
+	}
+
+	private static class BenchmarkInputDevice extends InputDevice {
+
+		private int inputCount;
+
+		public BenchmarkInputDevice(String identifier, int inputCount) {
+			super(identifier, identifier);
+			this.inputCount = inputCount;
+		}
+
+		@Override
+		protected List<Input> enumerateInputs() {
+			List<Input> inputs = new Vector<Input>(inputCount);
+			for (int i = 0; i < inputCount; i++) {
+				inputs.add(new BenchmarkInput(this, "axis-" + i));
+			}
+			return inputs;
+		}
+
+		@Override
+		public String getTypeString() {
+			return "Benchmark";
+		}
+
+		@Override
+		public boolean isTypeMouse() {
+			return false;
+		}
+
+		@Override
+		public boolean isTypeKeyboard() {
+			return false;
+		}
+
+		@Override
+		public boolean isTypeStick() {
+			return false;
+		}
+
+		@Override
+		public boolean isTypeGamepad() {
+			return true;
+		}
+
+		@Override
+		public boolean isTypeUnknown() {
+			return false;
+		}
+
+	}
+
+	private static class BenchmarkInput extends Input {
+
+		public BenchmarkInput(InputDevice device, String identifier) {
+			super(device, identifier, identifier);
+		}
+
+		@Override
+		public boolean isAnalog() {
+			return true;
+		}
+
+		@Override
+		public boolean isRelative() {
+			return false;
+		}
+
+		@Override
+		public InputValueRange getValueRange() {
+			return new InputValueRange(-1.0f, 1.0f);
+		}
+
+	}
+
+}
\ No newline at end of file
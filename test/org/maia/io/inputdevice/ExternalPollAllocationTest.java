@@ -0,0 +1,79 @@
+package org.maia.io.inputdevice;
+
+import java.lang.management.ManagementFactory;
+
+import org.maia.io.inputdevice.impl.jinput.MockController;
+import org.maia.io.inputdevice.impl.jinput.MockJInputEventSource;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Verifies that external polling with a caller-supplied sink does not allocate memory
+ */
+public class ExternalPollAllocationTest extends Test {
+
+	private static final int WARM_UP_POLLS = 50000;
+
+	private static final int MEASURED_POLLS = 10000;
+
+	public static void main(String[] args) throws Exception {
+		new ExternalPollAllocationTest().startTest();
+	}
+
+	@Override
+	public void startTest() throws Exception {
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		MockJInputEventSource source = new MockJInputEventSource(MockController.createGamepad("Gamepad 1", 4, 12),
+				MockController.createGamepad("Gamepad 2", 4, 12));
+		source.awaitStartup();
+		InputEventGateway gateway = InputEventGateway.getInstance();
+		gateway.setExternalPollMode(true);
+		gateway.switchEventSource(source);
+		CountingSink sink = new CountingSink();
+		for (int i = 0; i < WARM_UP_POLLS; i++) {
+			gateway.pollExternally(sink);
+		}
+		long eventCount = sink.getEventCount();
+		long bytesBefore = threadBean.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < MEASURED_POLLS; i++) {
+			gateway.pollExternally(sink);
+		}
+		long bytesAfter = threadBean.getCurrentThreadAllocatedBytes();
+		long allocatedBytes = bytesAfter - bytesBefore;
+		eventCount = sink.getEventCount() - eventCount;
+		System.out.println(MEASURED_POLLS + " polls, " + eventCount + " events, " + allocatedBytes + " bytes allocated ("
+				+ (allocatedBytes / (double) MEASURED_POLLS) + " bytes per poll)");
+		if (eventCount == 0)
+			throw new IllegalStateException("No events were polled");
+		if (allocatedBytes > 0)
+			throw new IllegalStateException("External polling allocated " + allocatedBytes + " bytes");
+		System.out.println("PASSED");
+	}
+
+	private static class CountingSink implements InputEventListener {
+
+		private long eventCount;
+
+		private double valueSum; // keeps the events in use
+
+		public CountingSink() {
+		}
+
+		@Override
+		public void receiveInputEvent(InputEvent event) {
+			eventCount++;
+			valueSum += event.getValue();
+		}
+
+		public long getEventCount() {
+			return eventCount;
+		}
+
+		@SuppressWarnings("unused")
+		public double getValueSum() {
+			return valueSum;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package org.maia.io.inputdevice;
+
+import java.util.List;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.impl.jinput.MockController;
+import org.maia.io.inputdevice.impl.jinput.MockJInputEventSource;
+
+/**
+ * Verifies the ordering guarantee of the event coalescer
+ */
+public class InputEventCoalescerTest extends Test {
+
+	public static void main(String[] args) throws Exception {
+		new InputEventCoalescerTest().startTest();
+	}
+
+	@Override
+	public void startTest() throws Exception {
+		MockJInputEventSource source = new MockJInputEventSource(MockController.createGamepad("Gamepad 1", 2, 1),
+				MockController.createGamepad("Gamepad 2", 2, 1));
+		List<InputDevice> devices = source.getInputDevices();
+		Input axisX1 = getInput(devices.get(0), false, 0);
+		Input axisY1 = getInput(devices.get(0), false, 1);
+		Input button1 = getInput(devices.get(0), true, 0);
+		Input axisX2 = getInput(devices.get(1), false, 0);
+		RecordingListener downstream = new RecordingListener();
+		InputEventCoalescer coalescer = new InputEventCoalescer(downstream, Long.MAX_VALUE);
+		coalescer.offer(new InputEvent(axisX1, 0.1f));
+		coalescer.offer(new InputEvent(axisX2, 0.1f));
+		coalescer.offer(new InputEvent(axisY1, 0.2f));
+		coalescer.offer(new InputEvent(axisX1, 0.3f));
+		coalescer.offer(new InputEvent(button1, 1.0f));
+		check(downstream.getInputs().size() == 3, "Only the events of the device of the button were released");
+		check(downstream.getInputs().get(0) == axisY1, "Released events follow the order of last change");
+		check(downstream.getInputs().get(1) == axisX1 && downstream.getValues().get(1) == 0.3f,
+				"A coalesced event carries the last value");
+		check(downstream.getInputs().get(2) == button1, "The digital event follows the pending events of its device");
+		check(coalescer.getPendingEventCount() == 1, "The event of the other device is still pending");
+		coalescer.flushAll(0L);
+		check(downstream.getInputs().get(3) == axisX2, "Flushing releases the event of the other device");
+		check(coalescer.getPendingEventCount() == 0, "No event is pending after a flush");
+		System.out.println("PASSED");
+	}
+
+	private Input getInput(InputDevice device, boolean digital, int index) {
+		int i = 0;
+		for (Input input : device.getInputs()) {
+			if (input.isDigital() == digital && i++ == index)
+				return input;
+		}
+		throw new IllegalStateException("No such input on " + device.getName());
+	}
+
+	private void check(boolean condition, String expectation) {
+		if (!condition)
+			throw new IllegalStateException("Failed: " + expectation);
+	}
+
+	private static class RecordingListener implements InputEventListener {
+
+		private List<Input> inputs;
+
+		private List<Float> values;
+
+		public RecordingListener() {
+			this.inputs = new Vector<Input>();
+			this.values = new Vector<Float>();
+		}
+
+		@Override
+		public void receiveInputEvent(InputEvent event) {
+			getInputs().add(event.getInput());
+			getValues().add(event.getValue());
+		}
+
+		public List<Input> getInputs() {
+			return inputs;
+		}
+
+		public List<Float> getValues() {
+			return values;
+		}
+
+	}
+
+}
\ No newline at end of file
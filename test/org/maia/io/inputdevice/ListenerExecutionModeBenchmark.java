@@ -0,0 +1,86 @@
+package org.maia.io.inputdevice;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares inline listener execution with execution on virtual threads, for listeners that occasionally block
+ */
+public class ListenerExecutionModeBenchmark extends Benchmark {
+
+	private static final int POLLS = 2000;
+
+	private static final int EVENTS_PER_POLL = 10;
+
+	private static final int BLOCKING_EVENT_INTERVAL = 50; // every n-th event blocks the listener
+
+	private static final long BLOCKING_TIME_NANOS = 100000L;
+
+	public static void main(String[] args) throws Exception {
+		new ListenerExecutionModeBenchmark().startBenchmark();
+	}
+
+	@Override
+	public void startBenchmark() throws Exception {
+		InputEventGateway gateway = InputEventGateway.getInstance();
+		gateway.setExternalPollMode(true);
+		for (InputListenerExecutionMode mode : InputListenerExecutionMode.values()) {
+			for (int listenerCount : new int[] { 1, 10, 100 }) {
+				runBenchmark(gateway, mode, listenerCount); // warm-up
+				runBenchmark(gateway, mode, listenerCount);
+			}
+		}
+	}
+
+	private void runBenchmark(InputEventGateway gateway, InputListenerExecutionMode mode, int listenerCount) {
+		BenchmarkEventSource source = new BenchmarkEventSource(1, EVENTS_PER_POLL, EVENTS_PER_POLL);
+		gateway.switchEventSource(source);
+		gateway.setListenerExecutionMode(mode);
+		AtomicLong receivedEvents = new AtomicLong();
+		List<InputEventListener> listeners = new Vector<InputEventListener>(listenerCount);
+		for (int i = 0; i < listenerCount; i++) {
+			InputEventListener listener = new OccasionallyBlockingListener(receivedEvents);
+			listeners.add(listener);
+			gateway.registerGlobalListener(listener);
+		}
+		long expectedEvents = (long) POLLS * EVENTS_PER_POLL * listenerCount;
+		long t0 = System.nanoTime();
+		for (int i = 0; i < POLLS; i++) {
+			gateway.pollExternally();
+		}
+		long tPolled = System.nanoTime();
+		while (receivedEvents.get() < expectedEvents) {
+			LockSupport.parkNanos(100000L);
+		}
+		long tDelivered = System.nanoTime();
+		for (InputEventListener listener : listeners) {
+			gateway.unregisterGlobalListener(listener);
+		}
+		String name = mode + " x " + listenerCount;
+		report(name + " polling", POLLS, tPolled - t0);
+		report(name + " delivery", expectedEvents, tDelivered - t0);
+	}
+
+	private static class OccasionallyBlockingListener implements InputEventListener {
+
+		private AtomicLong receivedEvents;
+
+		private int count;
+
+		public OccasionallyBlockingListener(AtomicLong receivedEvents) {
+			this.receivedEvents = receivedEvents;
+		}
+
+		@Override
+		public void receiveInputEvent(InputEvent event) {
+			if (++count % BLOCKING_EVENT_INTERVAL == 0) {
+				LockSupport.parkNanos(BLOCKING_TIME_NANOS);
+			}
+			receivedEvents.incrementAndGet();
+		}
+
+	}
+
+}
\ No newline at end of file
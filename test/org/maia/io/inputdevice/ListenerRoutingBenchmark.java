@@ -0,0 +1,78 @@
+package org.maia.io.inputdevice;
+
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Measures the cost of routing events to device listeners, for many controllers spread over several devices
+ */
+public class ListenerRoutingBenchmark extends Benchmark {
+
+	private static final int DEVICES = 8;
+
+	private static final int CONTROLLERS = 64;
+
+	private static final int INPUTS_PER_DEVICE = 16;
+
+	private static final int EVENTS_PER_POLL = 32;
+
+	private static final int POLLS = 100000;
+
+	public static void main(String[] args) throws Exception {
+		new ListenerRoutingBenchmark().startBenchmark();
+	}
+
+	@Override
+	public void startBenchmark() throws Exception {
+		InputEventGateway gateway = InputEventGateway.getInstance();
+		gateway.setExternalPollMode(true);
+		BenchmarkEventSource source = new BenchmarkEventSource(DEVICES, INPUTS_PER_DEVICE, EVENTS_PER_POLL);
+		gateway.switchEventSource(source);
+		List<CountingListener> controllers = new Vector<CountingListener>(CONTROLLERS);
+		List<InputDevice> devices = source.getInputDevices();
+		for (int i = 0; i < CONTROLLERS; i++) {
+			CountingListener controller = new CountingListener();
+			controllers.add(controller);
+			gateway.registerDeviceListener(devices.get(i % DEVICES), controller);
+		}
+		runBenchmark(gateway, controllers); // warm-up
+		runBenchmark(gateway, controllers);
+		gateway.unregisterAllListeners();
+	}
+
+	private void runBenchmark(InputEventGateway gateway, List<CountingListener> controllers) {
+		long t0 = System.nanoTime();
+		for (int i = 0; i < POLLS; i++) {
+			gateway.pollExternally();
+		}
+		long elapsed = System.nanoTime() - t0;
+		long deliveries = 0;
+		for (CountingListener controller : controllers) {
+			deliveries += controller.getAndResetEventCount();
+		}
+		String name = CONTROLLERS + " controllers x " + DEVICES + " devices";
+		report(name + " events", (long) POLLS * EVENTS_PER_POLL, elapsed);
+		report(name + " deliveries", deliveries, elapsed);
+	}
+
+	private static class CountingListener implements InputEventListener {
+
+		private long eventCount;
+
+		public CountingListener() {
+		}
+
+		@Override
+		public void receiveInputEvent(InputEvent event) {
+			eventCount++;
+		}
+
+		public long getAndResetEventCount() {
+			long count = eventCount;
+			eventCount = 0;
+			return count;
+		}
+
+	}
+
+}
\ No newline at end of file
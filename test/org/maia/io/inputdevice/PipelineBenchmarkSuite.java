@@ -0,0 +1,222 @@
+package org.maia.io.inputdevice;
+
+import java.util.List;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.controller.GatedInputCommandProducer;
+import org.maia.io.inputdevice.controller.GatedInputCommandRepeater;
+import org.maia.io.inputdevice.controller.GatedInputController;
+import org.maia.io.inputdevice.controller.InputCommand;
+import org.maia.io.inputdevice.controller.InputCommandProducer;
+import org.maia.io.inputdevice.controller.InputController;
+import org.maia.io.inputdevice.controller.InputControllerContext;
+import org.maia.io.inputdevice.impl.jinput.MockController;
+import org.maia.io.inputdevice.impl.jinput.MockJInputEventSource;
+
+/**
+ * Measures the hot paths of the input pipeline in isolation, from polling the event source to firing commands
+ * <p>
+ * Every benchmark is warmed up before being measured over several iterations, and reports the mean time per
+ * operation with its standard deviation, so that results can be compared from one release to the next.
+ * </p>
+ */
+public class PipelineBenchmarkSuite extends Benchmark {
+
+	private static final int DEVICES = 4;
+
+	private static final int AXES_PER_DEVICE = 6;
+
+	private static final int BUTTONS_PER_DEVICE = 12;
+
+	private static final int GLOBAL_LISTENERS = 4;
+
+	private static final int DEVICE_LISTENERS_PER_DEVICE = 4;
+
+	private static final int EVENTS = 1024; // prepared events per benchmark, cycled through
+
+	private static final int REPEATED_COMMANDS = 16;
+
+	public static void main(String[] args) throws Exception {
+		new PipelineBenchmarkSuite().startBenchmark();
+	}
+
+	@Override
+	public void startBenchmark() throws Exception {
+		MockController[] controllers = new MockController[DEVICES];
+		for (int i = 0; i < DEVICES; i++) {
+			controllers[i] = MockController.createGamepad("Gamepad " + i, AXES_PER_DEVICE, BUTTONS_PER_DEVICE);
+		}
+		MockJInputEventSource source = new MockJInputEventSource(controllers);
+		source.awaitStartup();
+		InputEventGateway gateway = InputEventGateway.getInstance();
+		gateway.setExternalPollMode(true);
+		gateway.switchEventSource(source);
+		InputDevice device = source.getInputDevices().get(0);
+		List<Input> analogInputs = new Vector<Input>();
+		List<Input> digitalInputs = new Vector<Input>();
+		for (Input input : device.getInputs()) {
+			if (input.isAnalog()) {
+				analogInputs.add(input);
+			} else {
+				digitalInputs.add(input);
+			}
+		}
+		benchmarkJInputPolling(source);
+		benchmarkGatewayFanOut(gateway, source);
+		benchmarkContextProcessing(device);
+		benchmarkGatedCommandProducer(device, analogInputs, false);
+		benchmarkGatedCommandProducer(device, analogInputs, true);
+		benchmarkGatedCommandProducer(device, digitalInputs, false);
+		benchmarkCommandRepeater(device);
+		System.out.println("(blackhole " + getBlackhole() + ")");
+	}
+
+	private void benchmarkJInputPolling(final MockJInputEventSource source) {
+		measure("JInputEventSource.pollEvents " + DEVICES + " devices", new BenchmarkOperation() {
+
+			@Override
+			public int invoke() {
+				return source.pollEvents().size();
+			}
+		});
+	}
+
+	private void benchmarkGatewayFanOut(final InputEventGateway gateway, InputEventSource source) {
+		List<InputEventListener> listeners = new Vector<InputEventListener>();
+		for (int i = 0; i < GLOBAL_LISTENERS; i++) {
+			InputEventListener listener = new CountingListener();
+			gateway.registerGlobalListener(listener);
+			listeners.add(listener);
+		}
+		for (InputDevice device : source.getInputDevices()) {
+			for (int i = 0; i < DEVICE_LISTENERS_PER_DEVICE; i++) {
+				gateway.registerDeviceListener(device, new CountingListener());
+			}
+		}
+		final InputEvent[] events = createEvents(source.getInputDevices());
+		measure("InputEventGateway.receiveInputEvent " + GLOBAL_LISTENERS + " global + " + DEVICE_LISTENERS_PER_DEVICE
+				+ " per device", new BenchmarkOperation() {
+
+					private int index;
+
+					@Override
+					public int invoke() {
+						gateway.receiveInputEvent(events[index++ % EVENTS]);
+						return index;
+					}
+				});
+		gateway.unregisterAllListeners();
+	}
+
+	private void benchmarkContextProcessing(InputDevice device) {
+		final InputControllerContext context = new InputControllerContext("Benchmark");
+		final InputController controller = new InputController("Benchmark controller", device, context);
+		for (Input input : device.getInputs()) {
+			controller.setupCommand(new InputCommandProducer(new InputCommand(input.getIdentifier())), input);
+		}
+		final InputEvent[] events = createEvents(device);
+		measure("InputControllerContext.process " + device.getInputs().size() + " inputs", new BenchmarkOperation() {
+
+			private int index;
+
+			@Override
+			public int invoke() {
+				context.process(events[index++ % EVENTS], controller);
+				return index;
+			}
+		});
+		controller.dispose();
+	}
+
+	private void benchmarkGatedCommandProducer(InputDevice device, List<Input> inputs, boolean fastReleasing) {
+		final GatedInputController controller = new GatedInputController("Benchmark gated controller", device);
+		controller.setFastReleasing(fastReleasing);
+		final GatedInputCommandProducer[] producers = new GatedInputCommandProducer[inputs.size()];
+		final InputEvent[] events = new InputEvent[EVENTS];
+		for (int i = 0; i < producers.length; i++) {
+			Input input = inputs.get(i);
+			InputValueRange firingRange = input.isAnalog() ? new AnalogInputValueRange(0.5f, 1.0f)
+					: new DigitalInputValueRange(1.0f);
+			producers[i] = new GatedInputCommandProducer(new InputCommand(input.getIdentifier()), firingRange);
+			producers[i].init(controller);
+		}
+		for (int i = 0; i < EVENTS; i++) {
+			Input input = inputs.get(i % inputs.size());
+			int step = i / inputs.size();
+			events[i] = new InputEvent(input, input.isAnalog() ? getSweepValue(step) : step % 2);
+		}
+		String mode = inputs.get(0).isDigital() ? "digital" : fastReleasing ? "analog fast-release" : "analog standard";
+		measure("GatedInputCommandProducer.process " + mode, new BenchmarkOperation() {
+
+			private int index;
+
+			@Override
+			public int invoke() {
+				int i = index++ % EVENTS;
+				producers[i % producers.length].process(events[i], controller);
+				return index;
+			}
+		});
+		controller.dispose();
+	}
+
+	private void benchmarkCommandRepeater(InputDevice device) {
+		final GatedInputController controller = new GatedInputController("Benchmark repeating controller", device);
+		controller.setAutoRepeatInitialDelayMillis(Long.MAX_VALUE / 2); // scheduled, but never due
+		final GatedInputCommandRepeater repeater = GatedInputCommandRepeater.getInstance();
+		final InputCommand[] commands = new InputCommand[REPEATED_COMMANDS];
+		for (int i = 0; i < commands.length; i++) {
+			commands[i] = new InputCommand("Command " + i);
+		}
+		measure("GatedInputCommandRepeater start and stop " + REPEATED_COMMANDS + " commands",
+				new BenchmarkOperation() {
+
+					@Override
+					public int invoke() {
+						for (int i = 0; i < commands.length; i++) {
+							repeater.startAutorepeat(controller, commands[i]);
+						}
+						for (int i = 0; i < commands.length; i++) {
+							repeater.stopAutorepeat(controller, commands[i]);
+						}
+						return commands.length;
+					}
+				});
+		controller.dispose();
+	}
+
+	private InputEvent[] createEvents(List<InputDevice> devices) {
+		InputEvent[] events = new InputEvent[EVENTS];
+		for (int i = 0; i < EVENTS; i++) {
+			List<Input> inputs = devices.get(i % devices.size()).getInputs();
+			Input input = inputs.get((i / devices.size()) % inputs.size());
+			events[i] = new InputEvent(input, getSweepValue(i));
+		}
+		return events;
+	}
+
+	private InputEvent[] createEvents(InputDevice device) {
+		List<InputDevice> devices = new Vector<InputDevice>(1);
+		devices.add(device);
+		return createEvents(devices);
+	}
+
+	private static float getSweepValue(int step) {
+		return (step % 40) / 20f - 1f;
+	}
+
+	private static class CountingListener implements InputEventListener {
+
+		private long eventCount;
+
+		public CountingListener() {
+		}
+
+		@Override
+		public void receiveInputEvent(InputEvent event) {
+			eventCount++;
+		}
+
+	}
+
+}
\ No newline at end of file
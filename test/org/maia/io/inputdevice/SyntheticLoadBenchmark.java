@@ -0,0 +1,114 @@
+package org.maia.io.inputdevice;
+
+import java.util.List;
+import java.util.Vector;
+
+import org.maia.io.inputdevice.controller.GatedInputController;
+import org.maia.io.inputdevice.controller.GatedInputControllerListener;
+import org.maia.io.inputdevice.controller.InputCommand;
+import org.maia.io.inputdevice.controller.InputControllerContext;
+import org.maia.io.inputdevice.controller.InputControllerException;
+import org.maia.io.inputdevice.impl.synthetic.ButtonMashingProfile;
+import org.maia.io.inputdevice.impl.synthetic.IdleNoiseProfile;
+import org.maia.io.inputdevice.impl.synthetic.StickSweepProfile;
+import org.maia.io.inputdevice.impl.synthetic.SyntheticEventProfile;
+import org.maia.io.inputdevice.impl.synthetic.SyntheticInputEventSource;
+
+/**
+ * Measures the throughput and latency of synthetic load through the gateway and gated controllers, without input
+ * device hardware
+ */
+public class SyntheticLoadBenchmark extends Benchmark {
+
+	private static final int DEVICES = 4;
+
+	private static final int INPUTS_PER_DEVICE = 16; // digital and analog each
+
+	private static final long DURATION_NANOS = 2000000000L;
+
+	public static void main(String[] args) throws Exception {
+		new SyntheticLoadBenchmark().startBenchmark();
+	}
+
+	@Override
+	public void startBenchmark() throws Exception {
+		InputEventGateway gateway = InputEventGateway.getInstance();
+		gateway.setExternalPollMode(true);
+		SyntheticEventProfile[] profiles = new SyntheticEventProfile[] { new ButtonMashingProfile(),
+				new StickSweepProfile(), new IdleNoiseProfile() };
+		for (SyntheticEventProfile profile : profiles) {
+			runBenchmark(gateway, profile); // warm-up
+			runBenchmark(gateway, profile);
+		}
+	}
+
+	private void runBenchmark(InputEventGateway gateway, SyntheticEventProfile profile)
+			throws InputControllerException {
+		SyntheticInputEventSource source = new SyntheticInputEventSource(DEVICES, INPUTS_PER_DEVICE, profile);
+		gateway.switchEventSource(source);
+		CountingListener listener = new CountingListener();
+		List<GatedInputController> controllers = new Vector<GatedInputController>(DEVICES);
+		for (InputDevice device : source.getInputDevices()) {
+			GatedInputController controller = new GatedInputController("Controller " + device.getName(), device,
+					new InputControllerContext("Benchmark"));
+			for (int i = 0; i < INPUTS_PER_DEVICE; i++) {
+				controller.setupGatedCommand(new InputCommand("Button " + i), "button-" + i);
+				controller.setupGatedCommand(new InputCommand("Axis " + i), "axis-" + i, 0.5f, 1.0f);
+			}
+			controller.getCurrentContext().init(controller); // initializes the command producers set up above
+			controller.addGatedListener(listener);
+			controllers.add(controller);
+		}
+		InputLatencyRecorder.getInstance().reset();
+		InputLatencyRecorder.getInstance().setEnabled(true);
+		long polls = 0;
+		long t0 = System.nanoTime();
+		long elapsed = 0;
+		while (elapsed < DURATION_NANOS) {
+			gateway.pollExternally();
+			polls++;
+			elapsed = System.nanoTime() - t0;
+		}
+		String name = profile.getClass().getSimpleName();
+		report(name + " polls", polls, elapsed);
+		report(name + " events", source.getGeneratedEventCount(), elapsed);
+		report(name + " commands", listener.getCommandCount(), elapsed);
+		InputDevice device = source.getInputDevices().get(0);
+		GatedInputController firstController = controllers.get(0);
+		InputLatencyRecorder recorder = InputLatencyRecorder.getInstance();
+		recorder.setEnabled(false);
+		System.out.println("  " + InputLatencyStage.GATEWAY_DISPATCH + ": "
+				+ recorder.getDeviceHistogram(InputLatencyStage.GATEWAY_DISPATCH, device.getIdentifier()));
+		System.out.println("  " + InputLatencyStage.CONTEXT_PROCESSING + ": "
+				+ recorder.getControllerHistogram(InputLatencyStage.CONTEXT_PROCESSING, firstController));
+		System.out.println("  " + InputLatencyStage.COMMAND_FIRE + ": "
+				+ recorder.getControllerHistogram(InputLatencyStage.COMMAND_FIRE, firstController));
+		for (GatedInputController controller : controllers) {
+			controller.dispose(); // also discards its latencies
+		}
+	}
+
+	private static class CountingListener implements GatedInputControllerListener {
+
+		private long commandCount;
+
+		public CountingListener() {
+		}
+
+		@Override
+		public void inputCommandFired(GatedInputController controller, InputCommand command, boolean autoRepeat) {
+			commandCount++;
+		}
+
+		@Override
+		public void inputCommandReleased(GatedInputController controller, InputCommand command) {
+			commandCount++;
+		}
+
+		public long getCommandCount() {
+			return commandCount;
+		}
+
+	}
+
+}
\ No newline at end of file
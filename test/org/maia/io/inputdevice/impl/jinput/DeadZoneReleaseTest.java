@@ -0,0 +1,48 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+import java.util.List;
+
+import org.maia.io.inputdevice.InputEvent;
+import org.maia.io.inputdevice.Test;
+
+/**
+ * Verifies that a quantized analog component released into the dead zone is not left at its last value outside it
+ */
+public class DeadZoneReleaseTest extends Test {
+
+	private static final float DEAD_ZONE = 0.1f;
+
+	public static void main(String[] args) throws Exception {
+		new DeadZoneReleaseTest().startTest();
+	}
+
+	@Override
+	public void startTest() throws Exception {
+		MockController controller = MockController.createGamepad("Gamepad 1", 1, 0);
+		MockComponent axis = (MockComponent) controller.getComponents()[0];
+		MockJInputEventSource source = new MockJInputEventSource(controller);
+		source.awaitStartup();
+		controller.setIdle(true);
+		source.setMinimumAnalogDeadZone(DEAD_ZONE);
+		source.setDefaultAnalogQuantization(new DeltaQuantization(0.2f));
+		float lastValue = moveTo(source, axis, 0f, Float.NaN);
+		lastValue = moveTo(source, axis, 0.25f, lastValue);
+		for (float value = 0.09f; value > 0.015f; value -= 0.01f) {
+			lastValue = moveTo(source, axis, value, lastValue);
+		}
+		System.out.println("Reported value at rest: " + lastValue);
+		if (Math.abs(lastValue) > DEAD_ZONE)
+			throw new IllegalStateException("Value left outside the dead zone: " + lastValue);
+		System.out.println("PASSED");
+	}
+
+	private float moveTo(MockJInputEventSource source, MockComponent axis, float value, float lastValue) {
+		axis.setValue(value);
+		List<InputEvent> events = source.pollEvents();
+		for (int i = 0; i < events.size(); i++) {
+			lastValue = events.get(i).getValue();
+		}
+		return lastValue;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+import org.maia.io.inputdevice.Benchmark;
+import org.maia.io.inputdevice.Input;
+import org.maia.io.inputdevice.InputDevice;
+import org.maia.io.inputdevice.InputDeviceFilter;
+import org.maia.io.inputdevice.InputFilter;
+
+/**
+ * Measures polling a mocked 120-key keyboard, the controller with the most components commonly attached. While typing,
+ * about 10% of the keys change on every poll, while idle none do
+ */
+public class KeyboardPollBenchmark extends Benchmark {
+
+	private static final int KEYS = 120;
+
+	public static void main(String[] args) throws Exception {
+		new KeyboardPollBenchmark().startBenchmark();
+	}
+
+	@Override
+	public void startBenchmark() throws Exception {
+		benchmarkPolling("accept all", InputDeviceFilter.ACCEPT_ALL, InputFilter.ACCEPT_ALL);
+		benchmarkPolling("keyboards, user gestures", InputDeviceFilter.KEYBOARD,
+				AxisInputFilter.createExplicitUserGestureFilter().freeze());
+		benchmarkPolling("keyboards, user gestures, uncached", uncachedDeviceFilter(InputDeviceFilter.KEYBOARD),
+				uncachedInputFilter(AxisInputFilter.createExplicitUserGestureFilter()));
+		for (JInputPollMode pollMode : JInputPollMode.values()) {
+			benchmarkPolling(pollMode, false);
+			benchmarkPolling(pollMode, true);
+		}
+		System.out.println("(blackhole " + getBlackhole() + ")");
+	}
+
+	private void benchmarkPolling(String filterName, InputDeviceFilter deviceFilter, InputFilter inputFilter)
+			throws InterruptedException {
+		final MockJInputEventSource source = new MockJInputEventSource(
+				MockController.createKeyboard("Keyboard", KEYS));
+		source.setDeviceFilter(deviceFilter);
+		source.setInputFilter(inputFilter);
+		source.awaitStartup();
+		measure("JInputEventSource.pollEvents " + KEYS + " keys, " + filterName, new BenchmarkOperation() {
+
+			@Override
+			public int invoke() {
+				return source.pollEvents().size();
+			}
+		});
+	}
+
+	private void benchmarkPolling(JInputPollMode pollMode, boolean idle) throws InterruptedException {
+		final MockController keyboard = MockController.createKeyboard("Keyboard", KEYS);
+		final MockJInputEventSource source = new MockJInputEventSource(keyboard);
+		source.setDefaultPollMode(pollMode);
+		source.awaitStartup();
+		keyboard.setIdle(idle);
+		measure("JInputEventSource.pollEvents " + KEYS + " keys, " + pollMode + ", " + (idle ? "idle" : "typing"),
+				new BenchmarkOperation() {
+
+					@Override
+					public int invoke() {
+						return source.pollEvents().size();
+					}
+				});
+	}
+
+	private static InputDeviceFilter uncachedDeviceFilter(final InputDeviceFilter filter) {
+		return new InputDeviceFilter() {
+
+			@Override
+			public boolean accept(InputDevice device) {
+				return filter.accept(device);
+			}
+		};
+	}
+
+	private static InputFilter uncachedInputFilter(final InputFilter filter) {
+		return new InputFilter() {
+
+			@Override
+			public boolean accept(Input input) {
+				return filter.accept(input);
+			}
+		};
+	}
+
+}
\ No newline at end of file
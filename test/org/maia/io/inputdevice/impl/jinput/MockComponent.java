@@ -0,0 +1,61 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+import net.java.games.input.AbstractComponent;
+
+/**
+ * JInput component whose value follows a deterministic pattern, advanced by its {@link MockController}
+ */
+public class MockComponent extends AbstractComponent {
+
+	private boolean analog;
+
+	private int phase; // offsets the pattern from that of the other components
+
+	private float value;
+
+	public MockComponent(String name, Identifier identifier, boolean analog, int phase) {
+		super(name, identifier);
+		this.analog = analog;
+		this.phase = phase;
+	}
+
+	/**
+	 * Advances the value to the given tick. Analog values sweep from -1 to 1, digital values toggle every 10 ticks
+	 * 
+	 * @return <code>true</code> when the value changed
+	 */
+	boolean advance(long tick) {
+		float previousValue = getValue();
+		long t = tick + phase;
+		if (isAnalog()) {
+			setValue((t % 200L) / 100f - 1f);
+		} else {
+			setValue((t / 10L) % 2L == 0L ? 0f : 1f);
+		}
+		return getValue() != previousValue;
+	}
+
+	@Override
+	protected float poll() {
+		return value;
+	}
+
+	@Override
+	public boolean isAnalog() {
+		return analog;
+	}
+
+	@Override
+	public boolean isRelative() {
+		return false;
+	}
+
+	public float getValue() {
+		return value;
+	}
+
+	public void setValue(float value) {
+		this.value = value;
+	}
+
+}
\ No newline at end of file
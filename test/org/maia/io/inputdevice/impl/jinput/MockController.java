@@ -0,0 +1,118 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+import net.java.games.input.AbstractController;
+import net.java.games.input.Component;
+import net.java.games.input.Component.Identifier.Axis;
+import net.java.games.input.Component.Identifier.Button;
+import net.java.games.input.Component.Identifier.Key;
+import net.java.games.input.Controller;
+import net.java.games.input.Event;
+import net.java.games.input.Rumbler;
+
+/**
+ * JInput controller with mock components, whose values change on every poll unless the controller is idle. The
+ * changes are reported as device events as well, so they end up in the event queue of the controller
+ */
+public class MockController extends AbstractController {
+
+	private Type type;
+
+	private long tick;
+
+	private boolean idle; // when true, the values do not change
+
+	private int[] changedComponents; // indices of the components that changed in the last poll
+
+	private int changedCount;
+
+	private int nextChange; // index into changedComponents of the next device event
+
+	private long pollNanos; // time stamp of the device events of the last poll
+
+	private static final Axis[] AXES = { Axis.X, Axis.Y, Axis.Z, Axis.RX, Axis.RY, Axis.RZ, Axis.SLIDER };
+
+	public MockController(String name, Type type, MockComponent[] components) {
+		super(name, components, new Controller[0], new Rumbler[0]);
+		this.type = type;
+		this.changedComponents = new int[components.length];
+	}
+
+	/**
+	 * Creates a gamepad with the given number of analog axes (at most 7) and buttons
+	 */
+	public static MockController createGamepad(String name, int axisCount, int buttonCount) {
+		int axes = Math.min(axisCount, AXES.length);
+		MockComponent[] components = new MockComponent[axes + buttonCount];
+		for (int i = 0; i < axes; i++) {
+			components[i] = new MockComponent(AXES[i].getName(), AXES[i], true, i * 7);
+		}
+		for (int i = 0; i < buttonCount; i++) {
+			String buttonName = String.valueOf(i);
+			components[axes + i] = new MockComponent(buttonName, new Button(buttonName), false, i * 3);
+		}
+		return new MockController(name, Type.GAMEPAD, components);
+	}
+
+	/**
+	 * Creates a keyboard with the given number of keys
+	 */
+	public static MockController createKeyboard(String name, int keyCount) {
+		MockComponent[] components = new MockComponent[keyCount];
+		for (int i = 0; i < keyCount; i++) {
+			String keyName = "Key " + i;
+			components[i] = new MockComponent(keyName, new MockKey(keyName), false, i * 3);
+		}
+		return new MockController(name, Type.KEYBOARD, components);
+	}
+
+	@Override
+	protected void pollDevice() {
+		changedCount = 0;
+		nextChange = 0;
+		pollNanos = System.nanoTime();
+		if (!isIdle()) {
+			tick++;
+			Component[] components = getComponents();
+			for (int i = 0; i < components.length; i++) {
+				if (((MockComponent) components[i]).advance(tick)) {
+					changedComponents[changedCount++] = i;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected boolean getNextDeviceEvent(Event event) {
+		if (nextChange == changedCount)
+			return false;
+		MockComponent component = (MockComponent) getComponents()[changedComponents[nextChange++]];
+		event.set(component, component.getValue(), pollNanos);
+		return true;
+	}
+
+	@Override
+	public Type getType() {
+		return type;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	public boolean isIdle() {
+		return idle;
+	}
+
+	public void setIdle(boolean idle) {
+		this.idle = idle;
+	}
+
+	private static class MockKey extends Key {
+
+		public MockKey(String name) {
+			super(name);
+		}
+
+	}
+
+}
\ No newline at end of file
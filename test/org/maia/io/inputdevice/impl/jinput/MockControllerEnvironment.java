@@ -0,0 +1,24 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+import net.java.games.input.Controller;
+import net.java.games.input.ControllerEnvironment;
+
+public class MockControllerEnvironment extends ControllerEnvironment {
+
+	private Controller[] controllers;
+
+	public MockControllerEnvironment(Controller... controllers) {
+		this.controllers = controllers;
+	}
+
+	@Override
+	public Controller[] getControllers() {
+		return controllers;
+	}
+
+	@Override
+	public boolean isSupported() {
+		return true;
+	}
+
+}
\ No newline at end of file
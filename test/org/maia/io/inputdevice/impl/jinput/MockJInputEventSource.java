@@ -0,0 +1,33 @@
+package org.maia.io.inputdevice.impl.jinput;
+
+import net.java.games.input.Controller;
+import net.java.games.input.ControllerEnvironment;
+
+/**
+ * JInput event source over mock controllers, independent of the devices attached to the machine
+ */
+public class MockJInputEventSource extends JInputEventSource {
+
+	private Controller[] controllers;
+
+	public MockJInputEventSource(Controller... controllers) {
+		this.controllers = controllers;
+		setRenewControllerEnvironmentForScan(false);
+		setReuseEventObjects(true);
+	}
+
+	@Override
+	protected ControllerEnvironment createControllerEnvironment() {
+		return new MockControllerEnvironment(controllers);
+	}
+
+	/**
+	 * Polls until the startup mask time of the controller environment has elapsed and events come through
+	 */
+	public void awaitStartup() throws InterruptedException {
+		while (pollEvents().isEmpty()) {
+			Thread.sleep(10L);
+		}
+	}
+
+}
\ No newline at end of file